@@ -1,6 +1,6 @@
 package io.vepo.tutorial.quarkus;
 
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.ws.rs.GET;
@@ -15,7 +15,7 @@ import io.smallrye.mutiny.Uni;
 public class HelloEndpoint {
     private HelloResponse generateResponse() {
         HelloResponse response = new HelloResponse();
-        response.setCode(new Random().nextInt());
+        response.setCode(ThreadLocalRandom.current().nextInt());
         response.setMessage("Hello World!");
         return response;
     }
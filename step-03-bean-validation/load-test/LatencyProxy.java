@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * TCP proxy that delays every chunk sent to the target, standing in for a slow database. Each query round trip pays
+ * the latency once, while the responses flow back untouched.
+ *
+ * <pre>
+ * java load-test/LatencyProxy.java [listenPort] [targetHost] [targetPort] [latencyMillis]
+ * </pre>
+ */
+public class LatencyProxy {
+
+    public static void main(String[] args) throws IOException {
+        int listenPort = args.length > 0 ? Integer.parseInt(args[0]) : 15432;
+        String targetHost = args.length > 1 ? args[1] : "localhost";
+        int targetPort = args.length > 2 ? Integer.parseInt(args[2]) : 5432;
+        long latency = args.length > 3 ? Long.parseLong(args[3]) : 20;
+
+        try (ServerSocket server = new ServerSocket()) {
+            server.bind(new InetSocketAddress("localhost", listenPort));
+            System.out.println("Proxying localhost:" + listenPort + " to " + targetHost + ":" + targetPort + " with "
+                    + latency + " ms");
+            while (true) {
+                Socket client = server.accept();
+                Socket target = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                target.setTcpNoDelay(true);
+                pump(client, target, latency);
+                pump(target, client, 0);
+            }
+        }
+    }
+
+    private static void pump(Socket from, Socket to, long latency) {
+        Thread thread = new Thread(() -> {
+            byte[] buffer = new byte[16 * 1024];
+            try (InputStream input = from.getInputStream(); OutputStream output = to.getOutputStream()) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    if (latency > 0) {
+                        Thread.sleep(latency);
+                    }
+                    output.write(buffer, 0, read);
+                    output.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // connection closed by one of the sides
+            } finally {
+                close(from);
+                close(to);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the user endpoints. Each client thread sends one request at a time, mixing
+ * username lookups, page reads and creations.
+ *
+ * <pre>
+ * java load-test/UserLoadTest.java [baseUrl] [concurrency] [seconds] [seedUsers]
+ * </pre>
+ */
+public class UserLoadTest {
+
+    /**
+     * Latency histogram shared by all clients, so memory does not grow with the run length. Latencies are recorded in
+     * microseconds, exact below 64&micro;s and with 32 buckets per power of two above, about 3% precision.
+     */
+    private static final class Histogram {
+        private static final int EXACT = 64;
+        private static final int SUB_BUCKETS = 32;
+
+        private final AtomicLongArray counts = new AtomicLongArray(EXACT + (Long.SIZE - 7) * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long latency, boolean success) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(latency);
+            counts.incrementAndGet(index(micros));
+            total.increment();
+            max.accumulateAndGet(micros, Math::max);
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        private static int index(long micros) {
+            if (micros < EXACT) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int mantissa = (int) (micros >>> (exponent - 5)) & (SUB_BUCKETS - 1);
+            return EXACT + (exponent - 6) * SUB_BUCKETS + mantissa;
+        }
+
+        private static long upperBound(int index) {
+            if (index < EXACT) {
+                return index;
+            }
+            int exponent = (index - EXACT) / SUB_BUCKETS + 6;
+            int mantissa = (index - EXACT) % SUB_BUCKETS;
+            return ((SUB_BUCKETS + mantissa + 1L) << (exponent - 5)) - 1;
+        }
+
+        private double percentile(double percentile) {
+            long count = total.sum();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); ++i) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get()) / 1_000.0;
+                }
+            }
+            return max.get() / 1_000.0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int seedUsers = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        HttpClient client = HttpClient.newBuilder()
+                                      .connectTimeout(Duration.ofSeconds(5))
+                                      .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 10)))
+                                      .build();
+        String run = Long.toString(System.currentTimeMillis() % 60_466_176L, 36);
+        List<String> usernames = seed(client, baseUrl, run, seedUsers);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Histogram histogram = new Histogram();
+        AtomicInteger created = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; ++i) {
+            futures.add(clients.submit(() -> drive(client, baseUrl, run, usernames, deadline, histogram, created)));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+
+        long total = histogram.total.sum();
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms%n",
+                          total, histogram.errors.sum(), total / (double) seconds,
+                          histogram.percentile(0.50), histogram.percentile(0.90),
+                          histogram.percentile(0.99), histogram.max.get() / 1_000.0);
+        System.exit(0);
+    }
+
+    private static List<String> seed(HttpClient client, String baseUrl, String run, int count) throws Exception {
+        List<String> usernames = new ArrayList<>(count);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            String username = username("s", run, i);
+            usernames.add(username);
+            body.append(userJson(username)).append('\n');
+        }
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/user/batch"))
+                               .header("Content-Type", "application/x-ndjson")
+                               .POST(BodyPublishers.ofString(body.toString(), UTF_8))
+                               .build(),
+                    BodyHandlers.discarding());
+        return usernames;
+    }
+
+    private static void drive(HttpClient client, String baseUrl, String run, List<String> usernames, long deadline,
+                              Histogram histogram, AtomicInteger created) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int scenario = random.nextInt(100);
+            HttpRequest request;
+            if (scenario < 70) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/user/" + usernames.get(random.nextInt(usernames.size()))))
+                                     .GET()
+                                     .build();
+            } else if (scenario < 90) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/user?limit=20&after=" + random.nextInt(usernames.size())))
+                                     .GET()
+                                     .build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/user"))
+                                     .header("Content-Type", "application/json")
+                                     .POST(BodyPublishers.ofString(userJson(username("c", run, created.getAndIncrement())), UTF_8))
+                                     .build();
+            }
+
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = client.send(request, BodyHandlers.discarding()).statusCode() < 400;
+            } catch (Exception e) {
+                success = false;
+            }
+            histogram.record(System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * The run id takes at most 5 base 36 digits and the sequence at most 6, so names stay within the 15 characters
+     * allowed for usernames.
+     */
+    private static String username(String prefix, String run, int sequence) {
+        return prefix + run + Integer.toString(sequence, 36);
+    }
+
+    private static String userJson(String username) {
+        return "{\"email\":\"" + username + "@load.test\",\"username\":\"" + username
+                + "\",\"firstName\":\"Load\",\"lastName\":\"Test\",\"admin\":false,\"hashedPassword\":\"secret\"}";
+    }
+}
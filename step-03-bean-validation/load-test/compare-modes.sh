@@ -0,0 +1,57 @@
+#!/bin/bash
+# Runs the same load against the blocking and the reactive persistence modes. With a latency, every database round
+# trip goes through LatencyProxy, standing in for a slow database.
+# Requires the application to be packaged (mvn package) and PostgreSQL running.
+#
+#   ./load-test/compare-modes.sh [concurrency] [seconds] [latencyMillis] [workerThreads] [connections]
+set -e
+
+CONCURRENCY=${1:-200}
+SECONDS_PER_RUN=${2:-30}
+LATENCY=${3:-0}
+WORKER_THREADS=${4:-200}
+CONNECTIONS=${5:-20}
+PROXY_PORT=15432
+BASE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+RUNNER="$BASE_DIR/target/quarkus-tutorial-runner.jar"
+DB_PORT=5432
+PIDS=""
+trap 'kill $PIDS 2> /dev/null' EXIT
+
+wait_for_startup() {
+    for _ in $(seq 1 120); do
+        if curl -s -o /dev/null "http://localhost:8080/user?limit=1"; then
+            return 0
+        fi
+        sleep 0.5
+    done
+    echo "Application did not start" >&2
+    return 1
+}
+
+if [ "$LATENCY" -gt 0 ]; then
+    java "$BASE_DIR/load-test/LatencyProxy.java" $PROXY_PORT localhost 5432 "$LATENCY" > "$BASE_DIR/target/latency-proxy.log" 2>&1 &
+    PIDS="$!"
+    DB_PORT=$PROXY_PORT
+    sleep 2
+fi
+
+echo "latency=${LATENCY}ms workerThreads=$WORKER_THREADS connections=$CONNECTIONS"
+for MODE in blocking reactive; do
+    java -Dusers.persistence.mode=$MODE \
+         -Dquarkus.thread-pool.max-threads="$WORKER_THREADS" \
+         -Dquarkus.datasource.jdbc.max-size="$CONNECTIONS" \
+         -Dquarkus.datasource.reactive.max-size="$CONNECTIONS" \
+         -Dquarkus.datasource.jdbc.url="jdbc:postgresql://localhost:$DB_PORT/tutorial?reWriteBatchedInserts=true" \
+         -Dquarkus.datasource.reactive.url="postgresql://localhost:$DB_PORT/tutorial" \
+         -jar "$RUNNER" > "$BASE_DIR/target/load-test-$MODE.log" 2>&1 &
+    PID=$!
+    PIDS="$PIDS $PID"
+    wait_for_startup
+
+    echo -n "$MODE: "
+    java "$BASE_DIR/load-test/UserLoadTest.java" http://localhost:8080 "$CONCURRENCY" "$SECONDS_PER_RUN"
+
+    kill $PID
+    wait $PID 2> /dev/null || true
+done
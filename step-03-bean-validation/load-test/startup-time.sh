@@ -0,0 +1,42 @@
+#!/bin/bash
+# Measures the time from launching the application until it answers its first request, for the JVM runner jar and
+# the native executable. Requires both packages (mvn package and mvn package -Pnative) and PostgreSQL running.
+#
+#   ./load-test/startup-time.sh [runs]
+set -e
+
+RUNS=${1:-5}
+BASE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+JVM_RUNNER="java -jar $BASE_DIR/target/quarkus-tutorial-runner.jar"
+NATIVE_RUNNER="$BASE_DIR/target/quarkus-tutorial-runner"
+
+# prints the milliseconds until GET /user?limit=1 succeeds and the resident memory of the process at that moment
+measure() {
+    local start=$(date +%s%N)
+    $1 > "$BASE_DIR/target/startup-time.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2> /dev/null" EXIT
+    until curl -s -f -o /dev/null "http://localhost:8080/user?limit=1"; do
+        if ! kill -0 $pid 2> /dev/null; then
+            echo "Application did not start, see target/startup-time.log" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    local end=$(date +%s%N)
+    local rss=$(ps -o rss= -p $pid)
+    kill $pid
+    wait $pid 2> /dev/null || true
+    echo "$(( (end - start) / 1000000 )) ms, $(( rss / 1024 )) MB RSS"
+}
+
+for MODE in jvm native; do
+    if [ "$MODE" = "jvm" ]; then
+        RUNNER=$JVM_RUNNER
+    else
+        RUNNER=$NATIVE_RUNNER
+    fi
+    for RUN in $(seq 1 "$RUNS"); do
+        echo "$MODE #$RUN: $(measure "$RUNNER")"
+    done
+done
@@ -0,0 +1,64 @@
+package io.vepo.tutorial.quarkus.audit;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+public class AuditEvent {
+    public enum Type {
+        USER_CREATED((byte) 1),
+        USER_DISABLED((byte) 2),
+        USER_ENABLED((byte) 3);
+
+        private final byte code;
+
+        Type(byte code) {
+            this.code = code;
+        }
+
+        public byte code() {
+            return code;
+        }
+
+        public static Type of(byte code) {
+            return Arrays.stream(values())
+                         .filter(type -> type.code == code)
+                         .findFirst()
+                         .orElseThrow(() -> new IllegalArgumentException("Unknown audit event type! code=" + code));
+        }
+    }
+
+    private final long timestamp;
+    private final Type type;
+    private final int userId;
+    private final String username;
+
+    public AuditEvent(long timestamp, Type type, int userId, String username) {
+        this.timestamp = timestamp;
+        this.type = type;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditEvent [timestamp=" + Instant.ofEpochMilli(timestamp) + ", type=" + type + ", userId=" + userId
+                + ", username=" + username + "]";
+    }
+
+}
@@ -0,0 +1,196 @@
+package io.vepo.tutorial.quarkus.audit;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.vepo.tutorial.quarkus.infra.RingBuffer;
+import io.vepo.tutorial.quarkus.user.User;
+import io.vepo.tutorial.quarkus.user.UserCreated;
+import io.vepo.tutorial.quarkus.user.UserEnabledChanged;
+
+/**
+ * Write-behind audit trail of user mutations. Committed mutations are queued in a lock-free ring buffer and a single
+ * writer thread appends them in batches to memory-mapped segments, so request threads never wait for the disk. The
+ * writer parks while the buffer is empty and producers only unpark it when it is idle.
+ */
+@ApplicationScoped
+public class AuditLog {
+    private static final Logger logger = Logger.getLogger(AuditLog.class);
+
+    @Inject
+    @ConfigProperty(name = "audit.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "audit.directory", defaultValue = "audit")
+    String directory;
+
+    @Inject
+    @ConfigProperty(name = "audit.segment-size", defaultValue = "67108864")
+    int segmentSize;
+
+    @Inject
+    @ConfigProperty(name = "audit.buffer-size", defaultValue = "65536")
+    int bufferSize;
+
+    @Inject
+    @ConfigProperty(name = "audit.batch-size", defaultValue = "1024")
+    int batchSize;
+
+    @Inject
+    @ConfigProperty(name = "audit.fsync", defaultValue = "interval")
+    String fsyncPolicy;
+
+    @Inject
+    @ConfigProperty(name = "audit.fsync-interval", defaultValue = "PT1S")
+    Duration fsyncInterval;
+
+    @Inject
+    MeterRegistry registry;
+
+    private FsyncPolicy fsync;
+    private RingBuffer<AuditEvent> buffer;
+    private Counter written;
+    private Counter dropped;
+    private Thread writer;
+    private volatile boolean running = false;
+    private volatile boolean idle = false;
+
+    @PostConstruct
+    void setup() {
+        fsync = FsyncPolicy.valueOf(fsyncPolicy.toUpperCase(Locale.ROOT));
+        buffer = new RingBuffer<>(bufferSize);
+        written = registry.counter("audit.events.written");
+        dropped = registry.counter("audit.events.dropped");
+        registry.gauge("audit.queue.size", buffer, RingBuffer::size);
+    }
+
+    void start(@Observes StartupEvent event) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        AuditSegmentWriter segments = new AuditSegmentWriter(Paths.get(directory), segmentSize);
+        running = true;
+        writer = new Thread(() -> write(segments), "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    void stop(@Observes ShutdownEvent event) throws InterruptedException {
+        if (Objects.nonNull(writer)) {
+            running = false;
+            LockSupport.unpark(writer);
+            writer.join();
+        }
+    }
+
+    void userCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserCreated event) {
+        append(AuditEvent.Type.USER_CREATED, event.getUser());
+    }
+
+    void userEnabledChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserEnabledChanged event) {
+        append(new AuditEvent(System.currentTimeMillis(),
+                              event.isEnabled() ? AuditEvent.Type.USER_ENABLED : AuditEvent.Type.USER_DISABLED,
+                              event.getUserId(),
+                              event.getUsername()));
+    }
+
+    public void append(AuditEvent.Type type, User user) {
+        append(new AuditEvent(System.currentTimeMillis(), type, user.getId(), user.getUsername()));
+    }
+
+    /**
+     * Queues the event without blocking. If the writer fell behind and the buffer is full, the event is dropped and
+     * counted in <code>audit.events.dropped</code>.
+     */
+    public void append(AuditEvent event) {
+        if (!running) {
+            return;
+        }
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            logger.warnf("Audit buffer full, event dropped! event=%s", event);
+            return;
+        }
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void write(AuditSegmentWriter segments) {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long lastForce = System.nanoTime();
+        try (segments) {
+            while (running || buffer.size() > 0) {
+                if (buffer.drainTo(batch, batchSize) == 0) {
+                    awaitEvents(segments, lastForce);
+                } else {
+                    writeBatch(segments, batch);
+                    if (fsync == FsyncPolicy.ALWAYS) {
+                        segments.force();
+                    }
+                }
+                if (fsync == FsyncPolicy.INTERVAL && segments.isDirty()
+                        && System.nanoTime() - lastForce >= fsyncInterval.toNanos()) {
+                    segments.force();
+                    lastForce = System.nanoTime();
+                }
+            }
+        } catch (IOException ioe) {
+            logger.error("Could not close audit segment!", ioe);
+        }
+    }
+
+    /**
+     * Parks until a producer signals an event, or until the next interval fsync is due while the segment is dirty.
+     * The idle flag is raised before checking the buffer again, so an event queued meanwhile either is seen here or
+     * unparks the writer.
+     */
+    private void awaitEvents(AuditSegmentWriter segments, long lastForce) {
+        idle = true;
+        try {
+            if (!running || buffer.size() > 0) {
+                return;
+            }
+            if (fsync == FsyncPolicy.INTERVAL && segments.isDirty()) {
+                LockSupport.parkNanos(this, lastForce + fsyncInterval.toNanos() - System.nanoTime());
+            } else {
+                LockSupport.park(this);
+            }
+        } finally {
+            idle = false;
+        }
+    }
+
+    private void writeBatch(AuditSegmentWriter segments, List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                segments.append(event);
+                written.increment();
+            } catch (IOException | RuntimeException e) {
+                dropped.increment();
+                logger.errorf(e, "Could not write audit event! event=%s", event);
+            }
+        }
+        batch.clear();
+    }
+}
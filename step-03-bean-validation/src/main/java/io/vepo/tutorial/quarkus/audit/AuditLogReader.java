@@ -0,0 +1,53 @@
+package io.vepo.tutorial.quarkus.audit;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Scans the audit segments of a directory in the order they were written. Can be run from the command line:
+ *
+ * <pre>
+ * java -cp target/classes io.vepo.tutorial.quarkus.audit.AuditLogReader audit
+ * </pre>
+ */
+public class AuditLogReader {
+
+    public static void read(Path directory, Consumer<AuditEvent> consumer) throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(file -> AuditRecords.isSegment(file.getFileName().toString()))
+                            .sorted(Comparator.comparingLong(file -> AuditRecords.segmentIndex(file.getFileName().toString())))
+                            .collect(Collectors.toList());
+        }
+        for (Path segment : segments) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    private static void readSegment(Path segment, Consumer<AuditEvent> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, READ)) {
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            Optional<AuditEvent> event;
+            while ((event = AuditRecords.read(buffer)).isPresent()) {
+                consumer.accept(event.get());
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        read(Paths.get(args.length > 0 ? args[0] : "audit"), System.out::println);
+    }
+}
@@ -0,0 +1,103 @@
+package io.vepo.tutorial.quarkus.audit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of an audit segment. Each record is
+ *
+ * <pre>
+ * int length | int crc32 | long timestamp | byte type | int userId | short usernameLength | username (UTF-8)
+ * </pre>
+ *
+ * where <code>length</code> and <code>crc32</code> cover everything after the header. Segments are preallocated and
+ * zero filled, so a <code>length</code> of zero marks the end of the written records.
+ */
+final class AuditRecords {
+    static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int FIXED_PAYLOAD_SIZE = Long.BYTES + Byte.BYTES + Integer.BYTES + Short.BYTES;
+
+    private AuditRecords() {
+    }
+
+    static String segmentName(long index) {
+        return String.format("audit-%010d.log", index);
+    }
+
+    static boolean isSegment(String fileName) {
+        return fileName.matches("audit-\\d{10}\\.log");
+    }
+
+    static long segmentIndex(String fileName) {
+        return Long.parseLong(fileName.substring("audit-".length(), fileName.length() - ".log".length()));
+    }
+
+    static byte[] username(AuditEvent event) {
+        byte[] username = event.getUsername().getBytes(UTF_8);
+        if (username.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Username too long for the audit log! length=" + username.length);
+        }
+        return username;
+    }
+
+    static int recordSize(byte[] username) {
+        return HEADER_SIZE + FIXED_PAYLOAD_SIZE + username.length;
+    }
+
+    /**
+     * Writes the record at the buffer position. The header goes last, so a partially written record still reads as
+     * the end of the segment.
+     */
+    static void write(ByteBuffer buffer, AuditEvent event, byte[] username) {
+        int start = buffer.position();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(start + HEADER_SIZE);
+        payload.putLong(event.getTimestamp())
+               .put(event.getType().code())
+               .putInt(event.getUserId())
+               .putShort((short) username.length)
+               .put(username);
+
+        int length = FIXED_PAYLOAD_SIZE + username.length;
+        buffer.putInt(start + Integer.BYTES, checksum(buffer, start + HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.position(start + HEADER_SIZE + length);
+    }
+
+    /**
+     * Reads the record at the buffer position and moves past it.
+     *
+     * @return empty at the end of the segment, or at the first truncated or corrupted record
+     */
+    static Optional<AuditEvent> read(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_SIZE + FIXED_PAYLOAD_SIZE) {
+            return Optional.empty();
+        }
+        int length = buffer.getInt(start);
+        if (length < FIXED_PAYLOAD_SIZE || length > buffer.remaining() - HEADER_SIZE
+                || buffer.getInt(start + Integer.BYTES) != checksum(buffer, start + HEADER_SIZE, length)) {
+            return Optional.empty();
+        }
+
+        buffer.position(start + HEADER_SIZE);
+        long timestamp = buffer.getLong();
+        AuditEvent.Type type = AuditEvent.Type.of(buffer.get());
+        int userId = buffer.getInt();
+        byte[] username = new byte[buffer.getShort()];
+        buffer.get(username);
+        buffer.position(start + HEADER_SIZE + length);
+        return Optional.of(new AuditEvent(timestamp, type, userId, new String(username, UTF_8)));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(offset + length).position(offset);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,88 @@
+package io.vepo.tutorial.quarkus.audit;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Appends records to memory-mapped segments of a fixed size. Existing segments are never reopened: every writer
+ * starts a new segment after the last one found in the directory, and moves to the next one when a record does not
+ * fit. Not thread safe, it is owned by the audit writer thread.
+ */
+class AuditSegmentWriter implements Closeable {
+    private final Path directory;
+    private final int segmentSize;
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private boolean dirty = false;
+
+    AuditSegmentWriter(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentIndex = files.map(file -> file.getFileName().toString())
+                                .filter(AuditRecords::isSegment)
+                                .mapToLong(AuditRecords::segmentIndex)
+                                .max()
+                                .orElse(0);
+        }
+        open();
+    }
+
+    void append(AuditEvent event) throws IOException {
+        byte[] username = AuditRecords.username(event);
+        int recordSize = AuditRecords.recordSize(username);
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Audit record bigger than a segment! size=" + recordSize);
+        }
+        if (recordSize > segment.remaining()) {
+            rotate();
+        }
+        AuditRecords.write(segment, event, username);
+        dirty = true;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void force() {
+        if (dirty) {
+            segment.force();
+            dirty = false;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        open();
+    }
+
+    private void open() throws IOException {
+        segmentIndex++;
+        channel = FileChannel.open(directory.resolve(AuditRecords.segmentName(segmentIndex)), CREATE_NEW, READ, WRITE);
+        segment = channel.map(MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(channel)) {
+            force();
+            // the mapping stays valid after the channel is closed and is released with the buffer
+            channel.close();
+            channel = null;
+        }
+    }
+}
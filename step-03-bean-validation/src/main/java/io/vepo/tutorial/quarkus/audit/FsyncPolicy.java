@@ -0,0 +1,16 @@
+package io.vepo.tutorial.quarkus.audit;
+
+public enum FsyncPolicy {
+    /**
+     * Forces the segment to disk after every written batch.
+     */
+    ALWAYS,
+    /**
+     * Forces the segment to disk at most once per <code>audit.fsync-interval</code>.
+     */
+    INTERVAL,
+    /**
+     * Leaves flushing to the operating system.
+     */
+    NEVER
+}
@@ -0,0 +1,90 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts failed attempts per key in fixed time windows. Counters live in a {@link ConcurrentHashMap}, which only locks
+ * the bin of the key being updated, so attempts for different keys do not serialize on a shared lock.
+ * <p>
+ * At most <code>maxKeys</code> keys are tracked. When the map is full, one thread sweeps the expired windows, at most
+ * once per eighth of a window and only after the oldest window expired, so cycling keys cannot turn every failure into
+ * a full scan. While the map is still full of live windows, failures of new keys are not counted; the keys already
+ * tracked stay limited.
+ */
+public class AttemptLimiter {
+    private static final class Window {
+        private final long start;
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+
+    private final int maxFailures;
+    private final long windowLength;
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private volatile long nextSweep = System.nanoTime();
+
+    public AttemptLimiter(int maxFailures, Duration windowLength, int maxKeys) {
+        this.maxFailures = maxFailures;
+        this.windowLength = windowLength.toNanos();
+        this.maxKeys = maxKeys;
+    }
+
+    public boolean isBlocked(String key) {
+        Window window = windows.get(key);
+        return Objects.nonNull(window) && !isExpired(window, System.nanoTime())
+                && window.failures.get() >= maxFailures;
+    }
+
+    public void recordFailure(String key) {
+        long now = System.nanoTime();
+        if (windows.size() >= maxKeys && !windows.containsKey(key) && !sweep(now)) {
+            return;
+        }
+        windows.compute(key, (k, window) -> Objects.isNull(window) || isExpired(window, now) ? new Window(now) : window)
+               .failures.incrementAndGet();
+    }
+
+    /**
+     * @return <code>true</code> if there is room for a new key after the sweep
+     */
+    private boolean sweep(long now) {
+        if (now - nextSweep < 0 || !sweepLock.tryLock()) {
+            return false;
+        }
+        try {
+            long oldestStart = now;
+            for (Map.Entry<String, Window> entry : windows.entrySet()) {
+                Window window = entry.getValue();
+                if (isExpired(window, now)) {
+                    windows.remove(entry.getKey(), window);
+                } else if (window.start - oldestStart < 0) {
+                    oldestStart = window.start;
+                }
+            }
+            long oldestExpiry = oldestStart + windowLength;
+            long throttle = now + windowLength / 8;
+            nextSweep = oldestExpiry - throttle > 0 ? oldestExpiry : throttle;
+            return windows.size() < maxKeys;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    private boolean isExpired(Window window, long now) {
+        return now - window.start >= windowLength;
+    }
+}
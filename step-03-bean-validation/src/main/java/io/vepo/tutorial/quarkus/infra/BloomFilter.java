@@ -0,0 +1,61 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for strings. It may answer that a value is present when it is not, but never the opposite,
+ * so a negative answer can skip the authoritative check.
+ */
+public class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(Long.SIZE, Math.min(optimalBits, (long) Integer.MAX_VALUE * Long.SIZE));
+        bits = new AtomicLongArray((int) ((bitCount + Long.SIZE - 1) / Long.SIZE));
+        hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expected * Math.log(2)));
+    }
+
+    public void add(CharSequence value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; ++i) {
+            long bit = Math.floorMod(first + (long) i * second, bitCount);
+            long mask = 1L << bit;
+            int index = (int) (bit >>> 6);
+            long current;
+            do {
+                current = bits.get(index);
+            } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; ++i) {
+            long bit = Math.floorMod(first + (long) i * second, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a followed by the SplitMix64 finalizer to spread the bits of short strings
+    private static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); ++i) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
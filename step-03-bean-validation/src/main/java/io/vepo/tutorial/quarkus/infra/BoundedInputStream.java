@@ -0,0 +1,65 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * Fails with <code>413 Request Entity Too Large</code> as soon as more than <code>maxBytes</code> are read, so an
+ * oversized body is rejected without being read to the end.
+ */
+public class BoundedInputStream extends FilterInputStream {
+    private final long maxBytes;
+    private long count = 0;
+
+    public BoundedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value != -1) {
+            count(1);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        // never read more than one byte past the limit
+        int read = super.read(buffer, offset, (int) Math.min(length, maxBytes - count + 1));
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, maxBytes - count + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) {
+        count += bytes;
+        if (count > maxBytes) {
+            throw tooLarge(maxBytes);
+        }
+    }
+
+    public static WebApplicationException tooLarge(long maxBytes) {
+        return new WebApplicationException("Request body too large! maxSize=" + maxBytes,
+                                           Status.REQUEST_ENTITY_TOO_LARGE);
+    }
+}
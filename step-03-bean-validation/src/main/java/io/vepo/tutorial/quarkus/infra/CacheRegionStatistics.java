@@ -0,0 +1,50 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Statistics of a Hibernate second-level cache region.
+ */
+@RegisterForReflection
+public class CacheRegionStatistics {
+    private final String region;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+
+    public CacheRegionStatistics(String region, long size, long hits, long misses, long puts) {
+        this.region = region;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getPuts() {
+        return puts;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheRegionStatistics [region=" + region + ", size=" + size + ", hits=" + hits + ", misses=" + misses
+                + ", puts=" + puts + "]";
+    }
+
+}
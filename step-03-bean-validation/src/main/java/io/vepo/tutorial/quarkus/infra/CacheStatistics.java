@@ -0,0 +1,41 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class CacheStatistics {
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStatistics(int size, long hits, long misses, long evictions) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics [size=" + size + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + "]";
+    }
+
+}
@@ -0,0 +1,33 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.Provider;
+
+import org.jboss.resteasy.api.validation.ResteasyViolationException;
+import org.jboss.resteasy.api.validation.ViolationReport;
+
+/**
+ * Counts the constraint violations of endpoint parameters and answers with the same report Quarkus would.
+ */
+@Provider
+public class ConstraintViolationMapper implements ExceptionMapper<ResteasyViolationException> {
+
+    @Inject
+    ConstraintViolationMetrics metrics;
+
+    @Override
+    public Response toResponse(ResteasyViolationException exception) {
+        metrics.record(exception.getConstraintViolations());
+        Status status = exception.getReturnValueViolations().isEmpty() ? Status.BAD_REQUEST
+                : Status.INTERNAL_SERVER_ERROR;
+        return Response.status(status)
+                       .entity(new ViolationReport(exception))
+                       .type(MediaType.APPLICATION_JSON)
+                       .build();
+    }
+
+}
@@ -0,0 +1,35 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.validation.ConstraintViolation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ApplicationScoped
+public class ConstraintViolationMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<Class<? extends Annotation>, Counter> counters = new ConcurrentHashMap<>();
+
+    public void record(Set<? extends ConstraintViolation<?>> violations) {
+        violations.forEach(violation -> counters.computeIfAbsent(violation.getConstraintDescriptor()
+                                                                          .getAnnotation()
+                                                                          .annotationType(),
+                                                                 this::counter)
+                                                .increment());
+    }
+
+    private Counter counter(Class<? extends Annotation> constraint) {
+        return Counter.builder("constraint.violations")
+                      .tag("constraint", constraint.getSimpleName())
+                      .register(registry);
+    }
+}
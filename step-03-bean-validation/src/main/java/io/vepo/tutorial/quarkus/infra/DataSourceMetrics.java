@@ -0,0 +1,36 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.util.function.ToLongFunction;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.AgroalDataSourceMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+
+@ApplicationScoped
+public class DataSourceMetrics {
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    MeterRegistry registry;
+
+    void register(@Observes StartupEvent event) {
+        gauge("active", AgroalDataSourceMetrics::activeCount);
+        gauge("available", AgroalDataSourceMetrics::availableCount);
+        gauge("awaiting", AgroalDataSourceMetrics::awaitingCount);
+        gauge("max-used", AgroalDataSourceMetrics::maxUsedCount);
+    }
+
+    private void gauge(String state, ToLongFunction<AgroalDataSourceMetrics> value) {
+        Gauge.builder("datasource.connections", dataSource, source -> value.applyAsLong(source.getMetrics()))
+             .tag("state", state)
+             .register(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package io.vepo.tutorial.quarkus.infra;
+
+/**
+ * Validation group for constraints that cost more than a length or blank check: regular expressions, reserved word
+ * scans and database lookups. Used last in a {@link javax.validation.GroupSequence}, so it only runs when every cheap
+ * constraint has passed.
+ */
+public interface ExpensiveChecks {
+}
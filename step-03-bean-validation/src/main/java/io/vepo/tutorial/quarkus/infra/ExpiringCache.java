@@ -0,0 +1,154 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Bounded cache where each entry expires after a fixed time to live. Lookups only touch a {@link ConcurrentHashMap}
+ * and stamp the entry with its last access, so hits never contend on a lock. Once the cache grows past its maximum
+ * size, a single thread removes the expired entries and then the least recently used ones, down to 90% of the
+ * maximum, so the eviction cost is amortized over the following inserts.
+ * <p>
+ * Values are loaded outside any lock, and a load that overlaps an invalidation is not stored, so a stale value never
+ * survives an invalidation.
+ */
+public class ExpiringCache<K, V> {
+    private static final class CachedValue<V> {
+        private final V value;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private CachedValue(V value, long now, long ttl) {
+            this.value = value;
+            this.expiresAt = now + ttl;
+            this.lastAccess = now;
+        }
+    }
+
+    private static final class Candidate<K, V> {
+        private final K key;
+        private final CachedValue<V> entry;
+        private final long lastAccess;
+
+        private Candidate(K key, CachedValue<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            // copied, the entry can be accessed while the candidates are sorted
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+
+    private final int maxSize;
+    private final int evictTo;
+    private final long ttl;
+    private final ConcurrentHashMap<K, CachedValue<V>> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.evictTo = maxSize - maxSize / 10;
+        this.ttl = ttl.toNanos();
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        CachedValue<V> entry = lookup(key, now);
+        if (Objects.nonNull(entry)) {
+            return entry.value;
+        }
+
+        long version = invalidations.get();
+        V value = loader.apply(key);
+        CachedValue<V> loaded = new CachedValue<>(value, now, ttl);
+        // invalidations increment the version before removing the key, so checking it inside the bin lock either
+        // skips the store or stores before the removal
+        entries.compute(key, (k, current) -> version == invalidations.get() ? loaded : current);
+        evictIfFull();
+        return value;
+    }
+
+    public Optional<V> getIfPresent(K key) {
+        return Optional.ofNullable(lookup(key, System.nanoTime())).map(entry -> entry.value);
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new CachedValue<>(value, System.nanoTime(), ttl));
+        evictIfFull();
+    }
+
+    private CachedValue<V> lookup(K key, long now) {
+        CachedValue<V> entry = entries.get(key);
+        if (Objects.nonNull(entry) && entry.expiresAt - now <= 0) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            entry = null;
+        }
+
+        if (Objects.nonNull(entry)) {
+            entry.lastAccess = now;
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            List<Candidate<K, V>> live = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> {
+                if (entry.expiresAt - now <= 0) {
+                    if (entries.remove(key, entry)) {
+                        evictions.increment();
+                    }
+                } else {
+                    live.add(new Candidate<>(key, entry));
+                }
+            });
+
+            int excess = live.size() - evictTo;
+            if (excess > 0 && entries.size() > maxSize) {
+                live.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+                for (Candidate<K, V> candidate : live.subList(0, excess)) {
+                    if (entries.remove(candidate.key, candidate.entry)) {
+                        evictions.increment();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public CacheStatistics statistics() {
+        return new CacheStatistics(entries.size(), hits.sum(), misses.sum(), evictions.sum());
+    }
+}
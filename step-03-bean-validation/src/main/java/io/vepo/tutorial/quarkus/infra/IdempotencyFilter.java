@@ -0,0 +1,181 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Implements {@link Idempotent}. The first request with a given <code>Idempotency-Key</code> runs normally and its
+ * response is kept in a bounded, expiring store together with a SHA-256 fingerprint of the request. A retry with the
+ * same key and fingerprint gets the stored response without reaching the endpoint; a retry while the first request is
+ * still running gets <code>409 Conflict</code>, and reusing a key for a different request gets
+ * <code>422 Unprocessable Entity</code>. Server errors are not stored, so the request can be retried.
+ */
+@Provider
+@Idempotent
+public class IdempotencyFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final String KEY_PROPERTY = IdempotencyFilter.class.getName() + ".key";
+    private static final String IN_FLIGHT_PROPERTY = IdempotencyFilter.class.getName() + ".inFlight";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int UNPROCESSABLE_ENTITY = 422;
+
+    private static final class StoredResponse {
+        private final byte[] fingerprint;
+        private final int status;
+        private final MediaType mediaType;
+        private final Object entity;
+
+        private StoredResponse(byte[] fingerprint, int status, MediaType mediaType, Object entity) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.mediaType = mediaType;
+            this.entity = entity;
+        }
+    }
+
+    private static final class InFlight {
+        private final byte[] fingerprint;
+        private final long startedAt;
+
+        private InFlight(byte[] fingerprint, long startedAt) {
+            this.fingerprint = fingerprint;
+            this.startedAt = startedAt;
+        }
+    }
+
+    @Inject
+    @ConfigProperty(name = "idempotency.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @Inject
+    @ConfigProperty(name = "idempotency.ttl", defaultValue = "PT24H")
+    Duration ttl;
+
+    @Inject
+    @ConfigProperty(name = "idempotency.max-body-size", defaultValue = "65536")
+    int maxBodySize;
+
+    // a request that ended without going through the response filter must not hold its key forever
+    @Inject
+    @ConfigProperty(name = "idempotency.in-flight-timeout", defaultValue = "PT30S")
+    Duration inFlightTimeout;
+
+    private ExpiringCache<String, StoredResponse> responses;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void setup() {
+        responses = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        String key = requestContext.getHeaderString(IDEMPOTENCY_KEY);
+        if (Objects.isNull(key)) {
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            requestContext.abortWith(error(Status.BAD_REQUEST.getStatusCode(),
+                                           IDEMPOTENCY_KEY + " must have between 1 and " + MAX_KEY_LENGTH + " characters!"));
+            return;
+        }
+
+        byte[] body = requestContext.getEntityStream().readNBytes(maxBodySize + 1);
+        if (body.length > maxBodySize) {
+            requestContext.abortWith(error(Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+                                           "Request body too large! maxSize=" + maxBodySize));
+            return;
+        }
+        requestContext.setEntityStream(new ByteArrayInputStream(body));
+        byte[] fingerprint = fingerprint(requestContext, body);
+
+        long now = System.nanoTime();
+        InFlight current = new InFlight(fingerprint, now);
+        InFlight running = inFlight.compute(key, (k, previous) -> Objects.isNull(previous)
+                || now - previous.startedAt >= inFlightTimeout.toNanos() ? current : previous);
+        if (running != current) {
+            requestContext.abortWith(MessageDigest.isEqual(running.fingerprint, fingerprint)
+                    ? error(Status.CONFLICT.getStatusCode(), "A request with this " + IDEMPOTENCY_KEY + " is in progress!")
+                    : mismatch());
+            return;
+        }
+
+        // checked after taking the key, so a request completing in between is still replayed
+        StoredResponse stored = responses.getIfPresent(key).orElse(null);
+        if (Objects.nonNull(stored)) {
+            inFlight.remove(key, current);
+            requestContext.abortWith(MessageDigest.isEqual(stored.fingerprint, fingerprint)
+                    ? Response.status(stored.status)
+                              .entity(stored.entity)
+                              .type(stored.mediaType)
+                              .header(IDEMPOTENT_REPLAYED, "true")
+                              .build()
+                    : mismatch());
+            return;
+        }
+        requestContext.setProperty(KEY_PROPERTY, key);
+        requestContext.setProperty(IN_FLIGHT_PROPERTY, current);
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        String key = (String) requestContext.getProperty(KEY_PROPERTY);
+        if (Objects.isNull(key)) {
+            return;
+        }
+        // this request's own entry, after an in-flight timeout the key can be held by another request
+        InFlight current = (InFlight) requestContext.getProperty(IN_FLIGHT_PROPERTY);
+        if (responseContext.getStatus() < Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+            responses.put(key, new StoredResponse(current.fingerprint,
+                                                  responseContext.getStatus(),
+                                                  responseContext.getMediaType(),
+                                                  responseContext.getEntity()));
+        }
+        inFlight.remove(key, current);
+    }
+
+    private static byte[] fingerprint(ContainerRequestContext requestContext, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(requestContext.getMethod().getBytes(UTF_8));
+            digest.update((byte) ' ');
+            digest.update(requestContext.getUriInfo().getPath().getBytes(UTF_8));
+            digest.update((byte) '\n');
+            return digest.digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available!", e);
+        }
+    }
+
+    private static Response mismatch() {
+        return error(UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY + " was already used for a different request!");
+    }
+
+    private static Response error(int status, String message) {
+        return Response.status(status)
+                       .entity(message)
+                       .type(MediaType.TEXT_PLAIN_TYPE)
+                       .build();
+    }
+}
@@ -0,0 +1,24 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.ws.rs.NameBinding;
+
+/**
+ * Requests to the endpoint carrying an <code>Idempotency-Key</code> header are executed once. Retries with the same
+ * key and body get the stored response. See {@link IdempotencyFilter}.
+ */
+@Documented
+@NameBinding
+@Target({
+    TYPE,
+    METHOD })
+@Retention(RUNTIME)
+public @interface Idempotent {
+}
@@ -0,0 +1,31 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.enterprise.util.Nonbinding;
+import javax.interceptor.InterceptorBinding;
+
+/**
+ * Records the duration of each call in the <code>method.calls</code> timer, tagged with the class and the method.
+ */
+@Inherited
+@Documented
+@InterceptorBinding
+@Target({
+    TYPE,
+    METHOD })
+@Retention(RUNTIME)
+public @interface Measured {
+    /**
+     * Name used in the <code>method</code> tag, defaults to the method name.
+     */
+    @Nonbinding
+    String value() default "";
+}
@@ -0,0 +1,48 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Measured
+@Interceptor
+// runs outside @Transactional, so the commit is part of the measured time
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class MeasuredInterceptor {
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        Timer timer = timers.computeIfAbsent(context.getMethod(), this::timer);
+        long start = System.nanoTime();
+        try {
+            return context.proceed();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method) {
+        Measured measured = method.getAnnotation(Measured.class);
+        String name = Objects.nonNull(measured) && !measured.value().isEmpty() ? measured.value() : method.getName();
+        return Timer.builder("method.calls")
+                    .tag("class", method.getDeclaringClass().getSimpleName())
+                    .tag("method", name)
+                    .publishPercentileHistogram()
+                    .register(registry);
+    }
+}
@@ -0,0 +1,128 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Salted PBKDF2-HMAC-SHA256 password hashes in the PHC string format:
+ *
+ * <pre>
+ * $pbkdf2-sha256$i=&lt;iterations&gt;$&lt;salt&gt;$&lt;hash&gt;
+ * </pre>
+ *
+ * The cost is stored with each hash, so raising <code>iterations</code> only affects new hashes and
+ * {@link #needsRehash(String)} tells which stored hashes to upgrade. Values without the prefix are legacy plain
+ * values and are compared as they are.
+ * <p>
+ * Hashes can be imported as they are, so their cost is not trusted: a hash outside
+ * [{@link #MIN_ITERATIONS}, {@link #MAX_ITERATIONS}] is not a valid hash and never matches, instead of tying up a
+ * thread on every attempt.
+ */
+public class PasswordHasher {
+    public static final int MIN_ITERATIONS = 1_000;
+    public static final int MAX_ITERATIONS = 1_000_000;
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final String ITERATIONS = "i=";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final int iterations;
+    private final SecureRandom random = new SecureRandom();
+
+    public PasswordHasher(int iterations) {
+        if (iterations < MIN_ITERATIONS || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations out of range! iterations=" + iterations + ", min="
+                    + MIN_ITERATIONS + ", max=" + MAX_ITERATIONS);
+        }
+        this.iterations = iterations;
+    }
+
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        return PREFIX + ITERATIONS + iterations + "$" + ENCODER.encodeToString(salt) + "$"
+                + ENCODER.encodeToString(pbkdf2(password, salt, iterations, HASH_LENGTH));
+    }
+
+    public boolean verify(String password, String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(password.getBytes(UTF_8), stored.getBytes(UTF_8));
+        }
+        try {
+            String[] parts = stored.substring(PREFIX.length()).split("\\$");
+            if (parts.length != 3) {
+                return false;
+            }
+            byte[] salt = DECODER.decode(parts[1]);
+            byte[] expected = DECODER.decode(parts[2]);
+            return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations(parts[0]), expected.length));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the value has the prefix of this format, even if it is not a valid hash
+     */
+    public static boolean hasHashPrefix(String value) {
+        return value.startsWith(PREFIX);
+    }
+
+    /**
+     * @return <code>true</code> if the value is a valid hash in this format, with iterations in the accepted range
+     */
+    public static boolean isHash(String value) {
+        if (!hasHashPrefix(value)) {
+            return false;
+        }
+        try {
+            String[] parts = value.substring(PREFIX.length()).split("\\$");
+            return parts.length == 3 && iterations(parts[0]) > 0 && DECODER.decode(parts[1]).length > 0
+                    && DECODER.decode(parts[2]).length > 0;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean needsRehash(String stored) {
+        if (!stored.startsWith(PREFIX)) {
+            return true;
+        }
+        try {
+            return iterations(stored.substring(PREFIX.length()).split("\\$")[0]) < iterations;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static int iterations(String parameter) {
+        if (!parameter.startsWith(ITERATIONS)) {
+            throw new IllegalArgumentException("Missing iterations! parameter=" + parameter);
+        }
+        int iterations = Integer.parseInt(parameter.substring(ITERATIONS.length()));
+        if (iterations < MIN_ITERATIONS || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Iterations out of range! parameter=" + parameter);
+        }
+        return iterations;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations, int length) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, length * Byte.SIZE);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 not available!", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Reserved words configured outside the annotations: the comma separated <code>reserved-words.extra</code> property
+ * and the file named by <code>reserved-words.file</code>, one word per line and lines starting with <code>#</code>
+ * ignored. The file is watched and every change is loaded into a new {@link ReservedWordSet} that replaces the current
+ * one atomically, so lookups never lock or see a half loaded file. A change is only loaded once the file stayed quiet
+ * for {@link #RELOAD_DELAY}, so a file still being written is not read, and a file that cannot be read keeps the
+ * current words.
+ */
+@ApplicationScoped
+public class ReservedWordRegistry {
+    private static final Logger logger = Logger.getLogger(ReservedWordRegistry.class);
+    private static final Duration RELOAD_DELAY = Duration.ofMillis(500);
+
+    @Inject
+    @ConfigProperty(name = "reserved-words.extra")
+    Optional<String> extra;
+
+    @Inject
+    @ConfigProperty(name = "reserved-words.file")
+    Optional<String> file;
+
+    private final AtomicReference<ReservedWordSet> words = new AtomicReference<>(ReservedWordSet.of(List.of()));
+    private volatile WatchService watcher;
+    // last words read from the file, only used by reload, which runs in setup and then on the watcher thread
+    private List<String> fileWords = List.of();
+
+    @PostConstruct
+    void setup() {
+        reload();
+    }
+
+    void watch(@Observes StartupEvent event) throws IOException {
+        if (file.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(file.get()).toAbsolutePath();
+        watcher = path.getFileSystem().newWatchService();
+        try {
+            path.getParent().register(watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException ioe) {
+            logger.errorf(ioe, "Could not watch reserved words directory, changes need a restart! directory=%s",
+                          path.getParent());
+            watcher.close();
+            watcher = null;
+            return;
+        }
+        Thread thread = new Thread(() -> watchLoop(path), "reserved-words-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop(@Observes ShutdownEvent event) throws IOException {
+        if (Objects.nonNull(watcher)) {
+            watcher.close();
+        }
+    }
+
+    public boolean contains(CharSequence value) {
+        return words.get().contains(value);
+    }
+
+    public int size() {
+        return words.get().size();
+    }
+
+    private void watchLoop(Path path) {
+        try {
+            boolean changed = false;
+            while (true) {
+                // after a change, wait until no event arrives for RELOAD_DELAY before reading the file
+                WatchKey key = changed ? watcher.poll(RELOAD_DELAY.toMillis(), TimeUnit.MILLISECONDS) : watcher.take();
+                if (Objects.isNull(key)) {
+                    changed = false;
+                    reload();
+                    continue;
+                }
+                changed |= key.pollEvents()
+                              .stream()
+                              .anyMatch(event -> path.getFileName().equals(event.context()));
+                if (!key.reset()) {
+                    logger.warnf("Reserved words directory is no longer watched! directory=%s", path.getParent());
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // shutting down
+        }
+    }
+
+    private void reload() {
+        List<String> loaded = new ArrayList<>();
+        extra.ifPresent(value -> loaded.addAll(Arrays.asList(value.split(","))));
+        file.ifPresent(value -> readFile(Paths.get(value)).ifPresent(read -> fileWords = read));
+        loaded.addAll(fileWords);
+        ReservedWordSet snapshot = ReservedWordSet.of(loaded.stream()
+                                                            .map(String::trim)
+                                                            .filter(word -> !word.isEmpty())
+                                                            .collect(toList()));
+        words.set(snapshot);
+        logger.infof("Reserved words loaded! size=%d", snapshot.size());
+    }
+
+    /**
+     * @return the words of the file, none if it does not exist, or empty if it could not be read
+     */
+    private static Optional<List<String>> readFile(Path path) {
+        if (!Files.exists(path)) {
+            logger.warnf("Reserved words file not found! file=%s", path);
+            return Optional.of(List.of());
+        }
+        try {
+            return Optional.of(Files.readAllLines(path, UTF_8)
+                                    .stream()
+                                    .filter(line -> !line.trim().startsWith("#"))
+                                    .collect(toList()));
+        } catch (IOException ioe) {
+            logger.errorf(ioe, "Could not read reserved words, keeping the current ones! file=%s", path);
+            return Optional.empty();
+        }
+    }
+}
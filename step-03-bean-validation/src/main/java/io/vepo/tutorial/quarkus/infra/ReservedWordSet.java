@@ -0,0 +1,82 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Immutable case-insensitive set of words. Words are kept in an open-addressing table hashed over case-folded
+ * characters, so a lookup walks the value only a few times and allocates nothing.
+ */
+public final class ReservedWordSet {
+    private final String[] table;
+    private final int mask;
+    private final int size;
+
+    private ReservedWordSet(Collection<String> words) {
+        int capacity = Integer.highestOneBit(Math.max(words.size(), 1) * 2 - 1) << 1;
+        table = new String[capacity];
+        mask = capacity - 1;
+
+        int count = 0;
+        for (String word : words) {
+            if (Objects.isNull(word) || word.isBlank() || contains(word)) {
+                continue;
+            }
+            int slot = hash(word) & mask;
+            while (Objects.nonNull(table[slot])) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = word;
+            count++;
+        }
+        size = count;
+    }
+
+    public static ReservedWordSet of(Collection<String> words) {
+        return new ReservedWordSet(words);
+    }
+
+    public boolean contains(CharSequence value) {
+        if (Objects.isNull(value)) {
+            return false;
+        }
+
+        int slot = hash(value) & mask;
+        while (Objects.nonNull(table[slot])) {
+            if (equalsIgnoreCase(table[slot], value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static int hash(CharSequence value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); ++i) {
+            hash = 31 * hash + fold(value.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equalsIgnoreCase(String word, CharSequence value) {
+        if (word.length() != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); ++i) {
+            if (fold(word.charAt(i)) != fold(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // same folding String.equalsIgnoreCase applies to each char
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -1,20 +1,37 @@
 package io.vepo.tutorial.quarkus.infra;
 
+import java.util.List;
+import java.util.Objects;
+
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Rejects the words of the annotation and the words of the {@link ReservedWordRegistry}. Outside CDI, when nothing is
+ * injected, only the annotation words apply.
+ */
+@Dependent
+@RegisterForReflection
 public class ReservedWordValidator implements ConstraintValidator<ReservedWord, String> {
 
-    private String word;
+    @Inject
+    ReservedWordRegistry registry;
+
+    private ReservedWordSet words;
 
     @Override
     public void initialize(ReservedWord wordAnnotation) {
-        this.word = wordAnnotation.value();
+        this.words = ReservedWordSet.of(List.of(wordAnnotation.value()));
     }
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        return value.compareToIgnoreCase(word) != 0;
+        return Objects.isNull(value)
+                || !(words.contains(value) || (Objects.nonNull(registry) && registry.contains(value)));
     }
 
 }
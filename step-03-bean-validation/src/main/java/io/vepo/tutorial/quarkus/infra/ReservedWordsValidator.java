@@ -4,23 +4,38 @@ import static java.util.Arrays.asList;
 import static java.util.stream.Collectors.toList;
 
 import java.util.List;
+import java.util.Objects;
 
+import javax.enterprise.context.Dependent;
+import javax.inject.Inject;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * {@link ReservedWordValidator} for repeated <code>@ReservedWord</code> annotations.
+ */
+@Dependent
+@RegisterForReflection
 public class ReservedWordsValidator implements ConstraintValidator<ReservedWords, String> {
-    private List<String> words;
+
+    @Inject
+    ReservedWordRegistry registry;
+
+    private ReservedWordSet words;
 
     @Override
     public void initialize(ReservedWords wordsAnnotation) {
-        words = asList(wordsAnnotation.value()).stream()
-                                               .map(ReservedWord::value)
-                                               .collect(toList());
+        words = ReservedWordSet.of(asList(wordsAnnotation.value()).stream()
+                                                                  .map(ReservedWord::value)
+                                                                  .collect(toList()));
     }
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        return words.stream().noneMatch(word -> word.compareToIgnoreCase(value) == 0);
+        return Objects.isNull(value)
+                || !(words.contains(value) || (Objects.nonNull(registry) && registry.contains(value)));
     }
 
 }
@@ -0,0 +1,91 @@
+package io.vepo.tutorial.quarkus.infra;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, based on Dmitry Vyukov's bounded MPMC queue.
+ * Each slot carries a sequence number telling whether it is free for the producer of a given position or ready for
+ * the consumer, so producers only compete on one compare-and-set and never block.
+ */
+public class RingBuffer<T> {
+    private final AtomicReferenceArray<T> items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        items = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        mask = size - 1;
+        for (int i = 0; i < size; ++i) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return <code>false</code> when the buffer is full
+     */
+    public boolean offer(T item) {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    items.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Must only be called from the consumer thread.
+     *
+     * @return the oldest item or <code>null</code> when the buffer is empty
+     */
+    public T poll() {
+        long position = tail.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T item = items.get(index);
+        items.set(index, null);
+        sequences.set(index, position + mask + 1);
+        tail.set(position + 1);
+        return item;
+    }
+
+    /**
+     * Must only be called from the consumer thread.
+     */
+    public int drainTo(Collection<? super T> target, int maxItems) {
+        int count = 0;
+        T item;
+        while (count < maxItems && (item = poll()) != null) {
+            target.add(item);
+            count++;
+        }
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, head.get() - tail.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
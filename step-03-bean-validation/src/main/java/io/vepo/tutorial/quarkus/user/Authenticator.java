@@ -0,0 +1,130 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.ws.rs.WebApplicationException;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vepo.tutorial.quarkus.infra.AttemptLimiter;
+import io.vepo.tutorial.quarkus.infra.ExpiringCache;
+
+@ApplicationScoped
+public class Authenticator {
+    private static final Logger logger = Logger.getLogger(Authenticator.class);
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private static final class VerifiedCredential {
+        private final byte[] digest;
+        private final User user;
+
+        private VerifiedCredential(byte[] digest, User user) {
+            this.digest = digest;
+            this.user = user;
+        }
+    }
+
+    @Inject
+    Users users;
+
+    @Inject
+    CredentialVerifier verifier;
+
+    @Inject
+    @ConfigProperty(name = "users.login.cache.max-size", defaultValue = "10000")
+    int cacheMaxSize;
+
+    @Inject
+    @ConfigProperty(name = "users.login.cache.ttl", defaultValue = "PT30S")
+    Duration cacheTtl;
+
+    @Inject
+    @ConfigProperty(name = "users.login.max-failures", defaultValue = "5")
+    int maxFailures;
+
+    @Inject
+    @ConfigProperty(name = "users.login.failure-window", defaultValue = "PT1M")
+    Duration failureWindow;
+
+    private ExpiringCache<String, VerifiedCredential> verified;
+    private AttemptLimiter limiter;
+
+    @PostConstruct
+    void setup() {
+        verified = new ExpiringCache<>(cacheMaxSize, cacheTtl);
+        limiter = new AttemptLimiter(maxFailures, failureWindow, cacheMaxSize);
+    }
+
+    /**
+     * Checks the password against the salted hash of an enabled user. The key derivation runs on
+     * {@link CredentialVerifier}, and legacy or weaker hashes are replaced after a successful login.
+     */
+    public Optional<User> authenticate(String username, String password) {
+        if (limiter.isBlocked(username)) {
+            throw new WebApplicationException("Too many failed login attempts! username=" + username,
+                                              TOO_MANY_REQUESTS);
+        }
+
+        byte[] digest = digest(password);
+        Optional<VerifiedCredential> credential = verified.getIfPresent(username);
+        if (credential.isPresent() && MessageDigest.isEqual(credential.get().digest, digest)) {
+            return Optional.of(credential.get().user);
+        }
+
+        // the username lookup only finds enabled users
+        Optional<User> user = users.findByUsername(username);
+        String stored = user.map(User::getHashedPassword).orElse(null);
+        if (!CredentialVerifier.await(verifier.verify(password, stored))) {
+            limiter.recordFailure(username);
+            verified.invalidate(username);
+            return Optional.empty();
+        }
+
+        limiter.reset(username);
+        verified.put(username, new VerifiedCredential(digest, user.get()));
+        if (verifier.needsRehash(stored)) {
+            rehash(user.get(), password);
+        }
+        return user;
+    }
+
+    private void rehash(User user, String password) {
+        verifier.hash(password)
+                // the update waits on the database, so it must not hold a thread of the credential pool
+                .thenAcceptAsync(hash -> users.updateHashedPassword(user.getUsername(), user.getHashedPassword(), hash),
+                                 Infrastructure.getDefaultWorkerPool())
+                .exceptionally(error -> {
+                    // the old hash keeps working, the upgrade is tried again on the next login
+                    logger.warnf(error, "Could not upgrade password hash! username=%s", user.getUsername());
+                    return null;
+                });
+    }
+
+    public void invalidate(String username) {
+        verified.invalidate(username);
+    }
+
+    void invalidate(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserEnabledChanged event) {
+        invalidate(event.getUsername());
+    }
+
+    private static byte[] digest(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+}
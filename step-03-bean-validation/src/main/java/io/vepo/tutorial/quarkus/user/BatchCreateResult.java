@@ -0,0 +1,68 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.List;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class BatchCreateResult {
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+
+    private final int index;
+    private final String username;
+    private Status status;
+    private Integer id;
+    private List<String> errors;
+
+    BatchCreateResult(int index, String username) {
+        this.index = index;
+        this.username = username;
+    }
+
+    void created(Integer id) {
+        this.status = Status.CREATED;
+        this.id = id;
+        this.errors = List.of();
+    }
+
+    void invalid(List<String> errors) {
+        this.status = Status.INVALID;
+        this.errors = errors;
+    }
+
+    void failed(String error) {
+        this.status = Status.FAILED;
+        this.errors = List.of(error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCreateResult [index=" + index + ", username=" + username + ", status=" + status + ", id=" + id
+                + ", errors=" + errors + "]";
+    }
+
+}
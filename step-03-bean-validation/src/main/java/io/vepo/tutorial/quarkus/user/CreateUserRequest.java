@@ -1,34 +1,54 @@
 package io.vepo.tutorial.quarkus.user;
 
+import javax.validation.GroupSequence;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
+import io.quarkus.runtime.annotations.RegisterForReflection;
+import io.vepo.tutorial.quarkus.infra.ExpensiveChecks;
 import io.vepo.tutorial.quarkus.infra.ReservedWord;
 
+@RegisterForReflection
+@GroupSequence({
+    CreateUserRequest.class,
+    ExpensiveChecks.class })
 public class CreateUserRequest {
 
-    @Email
     @NotBlank(message = "email may not be blank")
+    @Size(max = User.MAX_EMAIL_LENGTH, message = "email should have at most {max} characters")
+    @Email(groups = ExpensiveChecks.class)
+    @UniqueEmail(groups = ExpensiveChecks.class)
     private String email;
 
-    @Size(min = 4, max = 15, message = "username should have size [{min},{max}]")
+    @Size(min = 4, max = User.MAX_USERNAME_LENGTH, message = "username should have size [{min},{max}]")
     @NotBlank(message = "username may not be blank")
-    @Pattern(regexp = "^[a-zA-Z][a-zA-Z0-9]+$", message = "\"username\" should start with a letter and should only accept letters and numbers")
-    @ReservedWord("admin")
-    @ReservedWord("root")
+    @Pattern(regexp = "^[a-zA-Z][a-zA-Z0-9]+$", message = "\"username\" should start with a letter and should only accept letters and numbers", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "admin", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "root", groups = ExpensiveChecks.class)
+    // literal path segments of UserEndpoint, a user with one of these names could not be read at /user/{username}
+    @ReservedWord(value = "batch", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "cache", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "login", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "search", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "stream", groups = ExpensiveChecks.class)
+    @ReservedWord(value = "suggest", groups = ExpensiveChecks.class)
+    @UniqueUsername(groups = ExpensiveChecks.class)
     private String username;
 
     @NotBlank(message = "firstName may not be blank")
+    @Size(max = User.MAX_NAME_LENGTH, message = "firstName should have at most {max} characters")
     private String firstName;
 
     @NotBlank(message = "lastName may not be blank")
+    @Size(max = User.MAX_NAME_LENGTH, message = "lastName should have at most {max} characters")
     private String lastName;
 
     private boolean admin;
 
     @NotBlank(message = "hashedPassword may not be blank")
+    @Size(max = User.MAX_HASHED_PASSWORD_LENGTH, message = "hashedPassword should have at most {max} characters")
     private String hashedPassword;
 
     public String getEmail() {
@@ -0,0 +1,139 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParserFactory;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.vepo.tutorial.quarkus.infra.BoundedInputStream;
+
+/**
+ * Reads {@link CreateUserRequest} with a streaming JSON parser instead of JSON-B. The body stops being read once it
+ * exceeds <code>users.create.max-body-size</code> and each field is checked against its column length as soon as it is
+ * parsed, so an oversized payload is rejected before any object is bound or validated.
+ */
+@Provider
+@Consumes(MediaType.APPLICATION_JSON)
+public class CreateUserRequestReader implements MessageBodyReader<CreateUserRequest> {
+    private static final JsonParserFactory PARSERS = Json.createParserFactory(Map.of());
+
+    @Inject
+    @ConfigProperty(name = "users.create.max-body-size", defaultValue = "4096")
+    int maxBodySize;
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == CreateUserRequest.class;
+    }
+
+    @Override
+    public CreateUserRequest readFrom(Class<CreateUserRequest> type, Type genericType, Annotation[] annotations,
+                                      MediaType mediaType, MultivaluedMap<String, String> httpHeaders,
+                                      InputStream entityStream) {
+        String contentLength = httpHeaders.getFirst(HttpHeaders.CONTENT_LENGTH);
+        if (Objects.nonNull(contentLength) && contentLength.matches("\\d+") && Long.parseLong(contentLength) > maxBodySize) {
+            throw BoundedInputStream.tooLarge(maxBodySize);
+        }
+
+        try (JsonParser parser = PARSERS.createParser(new BoundedInputStream(entityStream, maxBodySize))) {
+            if (!parser.hasNext() || parser.next() != Event.START_OBJECT) {
+                throw new BadRequestException("Expected a JSON object!");
+            }
+            CreateUserRequest request = new CreateUserRequest();
+            Event event;
+            while ((event = parser.next()) != Event.END_OBJECT) {
+                if (event != Event.KEY_NAME) {
+                    throw new BadRequestException("Expected a field name!");
+                }
+                String field = parser.getString();
+                switch (field) {
+                    case "email":
+                        readString(parser, field, User.MAX_EMAIL_LENGTH, request::setEmail);
+                        break;
+                    case "username":
+                        readString(parser, field, User.MAX_USERNAME_LENGTH, request::setUsername);
+                        break;
+                    case "firstName":
+                        readString(parser, field, User.MAX_NAME_LENGTH, request::setFirstName);
+                        break;
+                    case "lastName":
+                        readString(parser, field, User.MAX_NAME_LENGTH, request::setLastName);
+                        break;
+                    case "hashedPassword":
+                        readString(parser, field, User.MAX_HASHED_PASSWORD_LENGTH, request::setHashedPassword);
+                        break;
+                    case "admin":
+                        readBoolean(parser, field, request::setAdmin);
+                        break;
+                    default:
+                        skipValue(parser);
+                }
+            }
+            return request;
+        } catch (JsonException e) {
+            throw new BadRequestException("Invalid JSON: " + e.getMessage(), e);
+        }
+    }
+
+    private static void readString(JsonParser parser, String field, int maxLength, Consumer<String> setter) {
+        switch (parser.next()) {
+            case VALUE_STRING:
+                String value = parser.getString();
+                if (value.length() > maxLength) {
+                    throw new BadRequestException(field + " should have at most " + maxLength + " characters");
+                }
+                setter.accept(value);
+                break;
+            case VALUE_NULL:
+                setter.accept(null);
+                break;
+            default:
+                throw new BadRequestException(field + " should be a string");
+        }
+    }
+
+    private static void readBoolean(JsonParser parser, String field, Consumer<Boolean> setter) {
+        switch (parser.next()) {
+            case VALUE_TRUE:
+                setter.accept(true);
+                break;
+            case VALUE_FALSE:
+            case VALUE_NULL:
+                setter.accept(false);
+                break;
+            default:
+                throw new BadRequestException(field + " should be a boolean");
+        }
+    }
+
+    private static void skipValue(JsonParser parser) {
+        switch (parser.next()) {
+            case START_OBJECT:
+                parser.skipObject();
+                break;
+            case START_ARRAY:
+                parser.skipArray();
+                break;
+            default:
+                break;
+        }
+    }
+}
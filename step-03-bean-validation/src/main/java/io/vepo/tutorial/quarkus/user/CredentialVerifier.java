@@ -0,0 +1,167 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vepo.tutorial.quarkus.infra.PasswordHasher;
+
+/**
+ * Hashes and verifies passwords on a dedicated pool with one thread per core and a bounded queue. Request threads
+ * never run the key derivation themselves, and when the queue is full new work is refused with
+ * <code>503 Service Unavailable</code> instead of piling up.
+ */
+@ApplicationScoped
+public class CredentialVerifier {
+
+    @Inject
+    @ConfigProperty(name = "users.password.iterations", defaultValue = "310000")
+    int iterations;
+
+    @Inject
+    @ConfigProperty(name = "users.batch.password-iterations", defaultValue = "10000")
+    int batchIterations;
+
+    @Inject
+    @ConfigProperty(name = "users.credentials.threads", defaultValue = "0")
+    int threads;
+
+    @Inject
+    @ConfigProperty(name = "users.credentials.queue-size", defaultValue = "256")
+    int queueSize;
+
+    @Inject
+    MeterRegistry registry;
+
+    private PasswordHasher hasher;
+    private PasswordHasher batchHasher;
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+    // unknown users are checked against this hash, so the response time does not reveal whether a username exists
+    private String unknownUserHash;
+
+    @PostConstruct
+    void setup() {
+        hasher = new PasswordHasher(iterations);
+        batchHasher = new PasswordHasher(Math.min(batchIterations, iterations));
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                                          new ArrayBlockingQueue<>(queueSize),
+                                          task -> {
+                                              Thread thread = new Thread(task, "credentials-" + threadCount.incrementAndGet());
+                                              thread.setDaemon(true);
+                                              return thread;
+                                          });
+        rejected = registry.counter("credentials.rejected");
+        registry.gauge("credentials.queue.size", executor, pool -> pool.getQueue().size());
+        registry.gauge("credentials.active", executor, ThreadPoolExecutor::getActiveCount);
+        unknownUserHash = hasher.hash(Long.toString(System.nanoTime()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletionStage<String> hash(String password) {
+        return submit(() -> hasher.hash(password));
+    }
+
+    /**
+     * Hashes the passwords of a bulk import in parallel, keeping their order. Values that already are PBKDF2 hashes
+     * are kept as they are, and the others are hashed with <code>users.batch.password-iterations</code>, so importing
+     * does not pay the full cost per user; {@link #needsRehash(String)} upgrades them on the next login.
+     */
+    public CompletionStage<List<String>> hashAll(List<String> passwords) {
+        List<CompletableFuture<String>> hashes = passwords.stream()
+                                                          .map(password -> PasswordHasher.isHash(password)
+                                                                  ? CompletableFuture.completedFuture(password)
+                                                                  : submit(() -> batchHasher.hash(password)))
+                                                          .collect(toList());
+        CompletableFuture<List<String>> result = new CompletableFuture<>();
+        CompletableFuture.allOf(hashes.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            if (Objects.nonNull(error)) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                result.complete(hashes.stream().map(CompletableFuture::join).collect(toList()));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @param stored the stored hash, or <code>null</code> for an unknown user, which always fails after the same
+     *               amount of work
+     */
+    public CompletionStage<Boolean> verify(String password, String stored) {
+        return submit(() -> hasher.verify(password, Objects.requireNonNullElse(stored, unknownUserHash))
+                && Objects.nonNull(stored));
+    }
+
+    public boolean needsRehash(String stored) {
+        return hasher.needsRehash(stored);
+    }
+
+    /**
+     * Waits for a result from a blocking thread, rethrowing the original failure.
+     */
+    public static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new WebApplicationException("Too many credential checks in progress!",
+                                                                     Response.status(Status.SERVICE_UNAVAILABLE)
+                                                                             .header(HttpHeaders.RETRY_AFTER, 1)
+                                                                             .build()));
+        }
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && Objects.nonNull(error.getCause()) ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,40 @@
+package io.vepo.tutorial.quarkus.user;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class LoginRequest {
+
+    @NotBlank(message = "username may not be blank")
+    @Size(min = 4, max = User.MAX_USERNAME_LENGTH, message = "username should have size [{min},{max}]")
+    private String username;
+
+    @NotBlank(message = "hashedPassword may not be blank")
+    @Size(max = User.MAX_HASHED_PASSWORD_LENGTH, message = "hashedPassword should have at most {max} characters")
+    private String hashedPassword;
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getHashedPassword() {
+        return hashedPassword;
+    }
+
+    public void setHashedPassword(String hashedPassword) {
+        this.hashedPassword = hashedPassword;
+    }
+
+    @Override
+    public String toString() {
+        return "LoginRequest [username=" + username + "]";
+    }
+
+}
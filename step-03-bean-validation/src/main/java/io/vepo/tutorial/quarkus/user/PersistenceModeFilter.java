@@ -0,0 +1,65 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.util.stream.Collectors.toSet;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Provider;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * When <code>users.persistence.mode=reactive</code>, routes the user requests that {@link ReactiveUserEndpoint}
+ * implements to it. Everything else keeps going to {@link UserEndpoint}.
+ */
+@Provider
+@PreMatching
+public class PersistenceModeFilter implements ContainerRequestFilter {
+    private static final String REACTIVE_MODE = "reactive";
+
+    private static final Set<String> BLOCKING_ONLY_PATHS = Arrays.stream(UserEndpoint.class.getMethods())
+                                                                 .map(method -> method.getAnnotation(Path.class))
+                                                                 .filter(Objects::nonNull)
+                                                                 .map(path -> path.value().replaceAll("^/+", "").split("/")[0])
+                                                                 .filter(segment -> !segment.startsWith("{"))
+                                                                 .collect(toSet());
+
+    @Inject
+    @ConfigProperty(name = "users.persistence.mode", defaultValue = "blocking")
+    String mode;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!REACTIVE_MODE.equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        UriInfo uriInfo = requestContext.getUriInfo();
+        String[] segments = uriInfo.getPath(false).replaceAll("^/+|/+$", "").split("/");
+        if (!segments[0].equals("user")) {
+            return;
+        }
+
+        String method = requestContext.getMethod();
+        boolean root = segments.length == 1 && (method.equals(HttpMethod.GET) || method.equals(HttpMethod.POST));
+        boolean byUsername = segments.length == 2 && method.equals(HttpMethod.GET)
+                && !BLOCKING_ONLY_PATHS.contains(segments[1]);
+        if (root || byUsername) {
+            requestContext.setRequestUri(uriInfo.getBaseUriBuilder()
+                                                .path("reactive")
+                                                .path(String.join("/", segments))
+                                                .replaceQuery(uriInfo.getRequestUri().getRawQuery())
+                                                .build());
+        }
+    }
+
+}
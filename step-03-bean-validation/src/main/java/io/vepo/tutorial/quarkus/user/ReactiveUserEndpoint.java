@@ -0,0 +1,65 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+
+import io.smallrye.mutiny.Uni;
+import io.vepo.tutorial.quarkus.infra.Idempotent;
+
+@Path("/reactive/user")
+@ApplicationScoped
+public class ReactiveUserEndpoint {
+
+    @Inject
+    ReactiveUsers users;
+
+    @Inject
+    CredentialVerifier verifier;
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<List<UserView>> findAll(@QueryParam("after") @DefaultValue("0") int after,
+                                   @QueryParam("limit") @DefaultValue("100") @Min(1) @Max(1000) int limit) {
+        return users.list(after, limit)
+                    .onItem().transform(UserView::of)
+                    .collectItems().asList();
+    }
+
+    @POST
+    @Idempotent
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<UserView> create(@Valid CreateUserRequest request) {
+        return Uni.createFrom().completionStage(verifier.hash(request.getHashedPassword()))
+                  .onItem().transformToUni(hashedPassword -> users.create(User.builder()
+                                                                              .email(request.getEmail())
+                                                                              .username(request.getUsername())
+                                                                              .firstName(request.getFirstName())
+                                                                              .lastName(request.getLastName()).admin(request.isAdmin())
+                                                                              .hashedPassword(hashedPassword)
+                                                                              .build()))
+                  .onItem().transform(UserView::of);
+    }
+
+    @GET
+    @Path("/{username}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Uni<UserView> findByUsername(@PathParam("username") String username) {
+        return users.findByUsername(username)
+                    .onItem().ifNull().failWith(() -> new NotFoundException("User not found! username=" + username))
+                    .onItem().transform(UserView::of);
+    }
+}
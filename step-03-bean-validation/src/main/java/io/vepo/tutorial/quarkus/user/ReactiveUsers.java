@@ -0,0 +1,83 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.Objects;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowIterator;
+import io.vertx.mutiny.sqlclient.Tuple;
+
+@ApplicationScoped
+public class ReactiveUsers {
+    private static final String SELECT_USER = "SELECT id, email, username, first_name, last_name, admin, enabled FROM tb_users";
+
+    // nextval is safe to share with Hibernate: its pooled optimizer only hands out ids below the values it fetched
+    private static final String INSERT_USER = "INSERT INTO tb_users (id, email, username, first_name, last_name, admin, hashed_password, enabled) "
+            + "VALUES (nextval('seq_users_id'), $1, $2, $3, $4, $5, $6, $7) RETURNING id";
+
+    @Inject
+    PgPool client;
+
+    @Inject
+    Users users;
+
+    @Inject
+    Event<UserCreated> created;
+
+    public Multi<User> list(int after, int limit) {
+        return client.preparedQuery(SELECT_USER + " WHERE id > $1 ORDER BY id LIMIT $2")
+                     .execute(Tuple.of(after, limit))
+                     .onItem().transformToMulti(rows -> Multi.createFrom().iterable(rows))
+                     .onItem().transform(ReactiveUsers::toUser);
+    }
+
+    public Uni<User> create(User user) {
+        if (Objects.nonNull(user.getId())) {
+            throw new IllegalStateException("Id should be null!");
+        }
+        return client.preparedQuery(INSERT_USER)
+                     .execute(Tuple.tuple()
+                                   .addString(user.getEmail())
+                                   .addString(user.getUsername())
+                                   .addString(user.getFirstName())
+                                   .addString(user.getLastName())
+                                   .addBoolean(user.isAdmin())
+                                   .addString(user.getHashedPassword())
+                                   .addBoolean(user.isEnabled()))
+                     .onItem().transform(rows -> {
+                         user.setId(rows.iterator().next().getInteger("id"));
+                         return user;
+                     })
+                     .onItem().invoke(createdUser -> {
+                         users.invalidate(createdUser.getUsername());
+                         created.fire(new UserCreated(createdUser));
+                     });
+    }
+
+    public Uni<User> findByUsername(String username) {
+        return client.preparedQuery(SELECT_USER + " WHERE username = $1 AND enabled")
+                     .execute(Tuple.of(username))
+                     .onItem().transform(rows -> {
+                         RowIterator<Row> iterator = rows.iterator();
+                         return iterator.hasNext() ? toUser(iterator.next()) : null;
+                     });
+    }
+
+    private static User toUser(Row row) {
+        User user = new User();
+        user.setId(row.getInteger("id"));
+        user.setEmail(row.getString("email"));
+        user.setUsername(row.getString("username"));
+        user.setFirstName(row.getString("first_name"));
+        user.setLastName(row.getString("last_name"));
+        user.setAdmin(row.getBoolean("admin"));
+        user.setEnabled(row.getBoolean("enabled"));
+        return user;
+    }
+}
@@ -0,0 +1,33 @@
+package io.vepo.tutorial.quarkus.user;
+
+import javax.ws.rs.core.EntityTag;
+
+public class SerializedUser {
+    private final Object source;
+    private final byte[] json;
+    private final EntityTag entityTag;
+
+    SerializedUser(Object source, byte[] json, EntityTag entityTag) {
+        this.source = source;
+        this.json = json;
+        this.entityTag = entityTag;
+    }
+
+    boolean isFrom(Object value) {
+        return source == value;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializedUser [entityTag=" + entityTag + ", length=" + json.length + "]";
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+@Documented
+@Constraint(validatedBy = UniqueEmailValidator.class)
+@Target({
+    METHOD,
+    FIELD,
+    ANNOTATION_TYPE,
+    PARAMETER,
+    TYPE_USE })
+@Retention(RUNTIME)
+public @interface UniqueEmail {
+    String message() default "email already in use";
+
+    Class<? extends Payload>[] payload() default {};
+
+    Class<?>[] groups() default {};
+}
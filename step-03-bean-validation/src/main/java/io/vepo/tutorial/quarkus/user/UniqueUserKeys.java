@@ -0,0 +1,76 @@
+package io.vepo.tutorial.quarkus.user;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.StartupEvent;
+import io.vepo.tutorial.quarkus.infra.BloomFilter;
+
+/**
+ * Keeps Bloom filters of every username and email in <code>tb_users</code>. A value the filter has never seen is
+ * known to be free without a query; only possible matches are checked against the database.
+ */
+@ApplicationScoped
+public class UniqueUserKeys {
+    private static final Logger logger = Logger.getLogger(UniqueUserKeys.class);
+
+    @Inject
+    Users users;
+
+    @Inject
+    @ConfigProperty(name = "users.unique.expected-users", defaultValue = "1000000")
+    long expectedUsers;
+
+    @Inject
+    @ConfigProperty(name = "users.unique.false-positive-rate", defaultValue = "0.01")
+    double falsePositiveRate;
+
+    private BloomFilter usernames;
+    private BloomFilter emails;
+    // until the filters hold every existing key, all checks go to the database
+    private volatile boolean warm = false;
+
+    @PostConstruct
+    void setup() {
+        usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        emails = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    void start(@Observes StartupEvent event) {
+        // scanning tb_users takes O(rows), so it must not delay the startup
+        Thread thread = new Thread(this::warmUp, "unique-keys-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        try {
+            users.forEachKey((username, email) -> {
+                usernames.add(username);
+                emails.add(email);
+            });
+            warm = true;
+            logger.info("Unique user keys loaded!");
+        } catch (RuntimeException e) {
+            logger.error("Could not load unique user keys, checks will query the database!", e);
+        }
+    }
+
+    void register(@Observes UserCreated event) {
+        usernames.add(event.getUser().getUsername());
+        emails.add(event.getUser().getEmail());
+    }
+
+    public boolean isUsernameTaken(String username) {
+        return (!warm || usernames.mightContain(username)) && users.existsByUsername(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        return (!warm || emails.mightContain(email)) && users.existsByEmail(email);
+    }
+}
@@ -0,0 +1,21 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.Objects;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+@ApplicationScoped
+public class UniqueUsernameValidator implements ConstraintValidator<UniqueUsername, String> {
+
+    @Inject
+    UniqueUserKeys keys;
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return Objects.isNull(value) || !keys.isUsernameTaken(value);
+    }
+
+}
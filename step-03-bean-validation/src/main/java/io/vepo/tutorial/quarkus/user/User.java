@@ -1,24 +1,47 @@
 package io.vepo.tutorial.quarkus.user;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.json.bind.annotation.JsonbTransient;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
 
+import org.hibernate.annotations.QueryHints;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
 @Entity
+@Cacheable
 @Table(name = "tb_users", uniqueConstraints = {
     @UniqueConstraint(name = "uq_users_username", columnNames = {
         "username" }),
     @UniqueConstraint(name = "uq_users_email", columnNames = {
         "email" })
+}, indexes = {
+    @Index(name = "ix_users_admin_enabled", columnList = "admin, enabled")
 })
-@NamedQuery(name = "User.findByUsernameAndHashedPassword", query = "SELECT usr FROM User usr WHERE usr.username = :username AND usr.hashedPassword = :hashedPassword AND usr.enabled = true")
-@NamedQuery(name = "User.findByUsername", query = "SELECT usr FROM User usr WHERE usr.username = :username")
+@NamedQuery(name = "User.findByUsername", query = "SELECT usr FROM User usr WHERE usr.username = :username AND usr.enabled = true", hints = {
+    @QueryHint(name = QueryHints.READ_ONLY, value = "true"),
+    @QueryHint(name = QueryHints.CACHEABLE, value = "true"),
+    @QueryHint(name = QueryHints.CACHE_REGION, value = User.FIND_BY_USERNAME_REGION) })
 public class User {
+    public static final String FIND_BY_USERNAME_REGION = "users-by-username";
+    // ids are allocated in blocks, see seq_users_id in V1.0.0__create_users.sql
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final int MAX_EMAIL_LENGTH = 254;
+    public static final int MAX_USERNAME_LENGTH = 15;
+    public static final int MAX_NAME_LENGTH = 100;
+    public static final int MAX_HASHED_PASSWORD_LENGTH = 255;
+
     public static final class UserBuilder {
         private String email;
         private String username;
@@ -70,25 +93,27 @@ public class User {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "users_id", sequenceName = "seq_users_id", allocationSize = ID_ALLOCATION_SIZE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id")
     private Integer id;
 
-    @Column
+    @Column(length = MAX_EMAIL_LENGTH)
     private String email;
 
-    @Column
+    @Column(length = MAX_USERNAME_LENGTH)
     private String username;
 
-    @Column(name = "first_name")
+    @Column(name = "first_name", length = MAX_NAME_LENGTH)
     private String firstName;
 
-    @Column(name = "last_name")
+    @Column(name = "last_name", length = MAX_NAME_LENGTH)
     private String lastName;
 
     @Column
     private boolean admin;
 
-    @Column(name = "hashed_password")
+    @JsonbTransient
+    @Column(name = "hashed_password", length = MAX_HASHED_PASSWORD_LENGTH)
     private String hashedPassword;
 
     @Column(name = "enabled")
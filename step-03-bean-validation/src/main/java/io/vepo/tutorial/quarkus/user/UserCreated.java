@@ -0,0 +1,19 @@
+package io.vepo.tutorial.quarkus.user;
+
+public class UserCreated {
+    private final User user;
+
+    public UserCreated(User user) {
+        this.user = user;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserCreated [user=" + user + "]";
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.vepo.tutorial.quarkus.user;
+
+public class UserEnabledChanged {
+    private final int userId;
+    private final String username;
+    private final boolean enabled;
+
+    public UserEnabledChanged(int userId, String username, boolean enabled) {
+        this.userId = userId;
+        this.username = username;
+        this.enabled = enabled;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "UserEnabledChanged [userId=" + userId + ", username=" + username + ", enabled=" + enabled + "]";
+    }
+
+}
@@ -1,17 +1,60 @@
 package io.vepo.tutorial.quarkus.user;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbException;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import io.vepo.tutorial.quarkus.infra.CacheRegionStatistics;
+import io.vepo.tutorial.quarkus.infra.CacheStatistics;
+import io.vepo.tutorial.quarkus.infra.Idempotent;
 
 @Path("/user")
 @ApplicationScoped
@@ -20,29 +63,185 @@ public class UserEndpoint {
     @Inject
     Users users;
 
+    @Inject
+    UserImporter importer;
+
+    @Inject
+    Authenticator authenticator;
+
+    @Inject
+    CredentialVerifier verifier;
+
+    @Inject
+    UserResponses responses;
+
+    @Inject
+    UserSuggestions suggestions;
+
+    @Inject
+    UserFeed feed;
+
+    @Inject
+    Jsonb jsonb;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<User> findAll() {
-        return users.list();
+    public Response findAll(@QueryParam("after") @DefaultValue("0") int after,
+                            @QueryParam("limit") @Min(1) @Max(1000) Integer limit,
+                            @Context UriInfo uriInfo) {
+        if (Objects.isNull(limit)) {
+            return Response.ok((StreamingOutput) output -> writeAll(after, output)).build();
+        }
+
+        List<UserView> page = users.list(after, limit);
+        ResponseBuilder response = Response.ok(page);
+        if (page.size() == limit) {
+            response.link(uriInfo.getRequestUriBuilder()
+                                 .replaceQueryParam("after", page.get(page.size() - 1).getId())
+                                 .build(),
+                          "next");
+        }
+        return response.build();
+    }
+
+    private void writeAll(int after, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, UTF_8));
+        AtomicBoolean first = new AtomicBoolean(true);
+        writer.write('[');
+        users.forEach(after, user -> {
+            try {
+                if (!first.compareAndSet(true, false)) {
+                    writer.write(',');
+                }
+                writer.write(jsonb.toJson(user));
+            } catch (IOException ioe) {
+                throw new UncheckedIOException(ioe);
+            }
+        });
+        writer.write(']');
+        writer.flush();
+    }
+
+    @POST
+    @Idempotent
+    @Produces(MediaType.APPLICATION_JSON)
+    public UserView create(@Valid CreateUserRequest request) {
+        String hashedPassword = CredentialVerifier.await(verifier.hash(request.getHashedPassword()));
+        return UserView.of(users.create(User.builder()
+                                            .email(request.getEmail())
+                                            .username(request.getUsername())
+                                            .firstName(request.getFirstName())
+                                            .lastName(request.getLastName()).admin(request.isAdmin())
+                                            .hashedPassword(hashedPassword)
+                                            .build()));
     }
 
     @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public User create(@Valid CreateUserRequest request) {
-        return users.create(User.builder()
-                                .email(request.getEmail())
-                                .username(request.getUsername())
-                                .firstName(request.getFirstName())
-                                .lastName(request.getLastName()).admin(request.isAdmin())
-                                .hashedPassword(request.getHashedPassword())
-                                .build());
+    public List<BatchCreateResult> createAll(List<CreateUserRequest> requests) {
+        UserImporter.Batch batch = importer.start();
+        requests.forEach(batch::add);
+        return batch.finish();
+    }
+
+    @POST
+    @Path("/batch")
+    @Consumes("application/x-ndjson")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<BatchCreateResult> createAll(InputStream body) throws IOException {
+        UserImporter.Batch batch = importer.start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(jsonb.fromJson(line, CreateUserRequest.class));
+            } catch (JsonbException je) {
+                batch.reject("Invalid JSON: " + je.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    @GET
+    @Path("/search")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<UserView> search(@Valid @BeanParam UserSearchRequest request) {
+        return users.search(request);
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void stream(@HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) @Pattern(regexp = "\\d{1,9}") String lastEventId,
+                       @Context SseEventSink sink, @Context Sse sse) {
+        feed.stream(sink, sse, Optional.ofNullable(lastEventId).map(Integer::valueOf));
+    }
+
+    @GET
+    @Path("/suggest")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<UserSuggestion> suggest(@QueryParam("q") @NotBlank @Size(max = UserSuggestions.MAX_TERM_LENGTH) String query,
+                                        @QueryParam("limit") @DefaultValue("10") @Min(1) @Max(50) int limit) {
+        return suggestions.suggest(query, limit);
+    }
+
+    @POST
+    @Path("/login")
+    @Produces(MediaType.APPLICATION_JSON)
+    public UserView login(@Valid LoginRequest request) {
+        return authenticator.authenticate(request.getUsername(), request.getHashedPassword())
+                            .map(UserView::of)
+                            .orElseThrow(() -> new WebApplicationException("Invalid username or password!",
+                                                                           Response.Status.UNAUTHORIZED));
+    }
+
+    @GET
+    @Path("/cache/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public CacheStatistics cacheStatistics() {
+        return users.cacheStatistics();
+    }
+
+    @GET
+    @Path("/cache/regions")
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<CacheRegionStatistics> cacheRegionStatistics() {
+        return users.cacheRegionStatistics();
     }
 
     @GET
     @Path("/{username}")
     @Produces(MediaType.APPLICATION_JSON)
-    public User findByUsername(@PathParam("username") String username) {
-        return users.findByUsername(username)
-                    .orElseThrow(() -> new NotFoundException("User not found! username=" + username));
+    public Response findByUsername(@PathParam("username") String username, @Context Request request) {
+        SerializedUser user = responses.findByUsername(username)
+                                       .orElseThrow(() -> new NotFoundException("User not found! username=" + username));
+        ResponseBuilder notModified = request.evaluatePreconditions(user.getEntityTag());
+        if (Objects.nonNull(notModified)) {
+            return notModified.build();
+        }
+        return Response.ok(user.getJson(), MediaType.APPLICATION_JSON_TYPE)
+                       .tag(user.getEntityTag())
+                       .build();
+    }
+
+    @DELETE
+    @Path("/{username}")
+    public void delete(@PathParam("username") String username) {
+        setEnabled(username, false);
+    }
+
+    @PUT
+    @Path("/{username}/enabled")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void setEnabled(@PathParam("username") String username, @NotNull Boolean enabled) {
+        // nothing was updated, either the user is already in that state or it does not exist
+        if (!users.setEnabled(username, enabled) && !users.existsByUsername(username)) {
+            throw new NotFoundException("User not found! username=" + username);
+        }
     }
 }
@@ -0,0 +1,85 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Sends the users of the feed to one SSE client. Only one event is requested at a time, and the next one only after
+ * the previous was written, so a slow client holds back its own bounded buffer instead of the heap.
+ */
+class UserEventStream implements Subscriber<UserView> {
+    private static final String EVENT_NAME = "user-created";
+
+    private final SseEventSink sink;
+    private final Sse sse;
+    private volatile Subscription subscription;
+
+    UserEventStream(SseEventSink sink, Sse sse) {
+        this.sink = sink;
+        this.sse = sse;
+    }
+
+    /**
+     * Starts delivering live events, after the replay was sent.
+     */
+    void start() {
+        subscription.request(1);
+    }
+
+    boolean isClosed() {
+        return sink.isClosed();
+    }
+
+    CompletionStage<?> send(UserView user) {
+        return sink.send(sse.newEventBuilder()
+                            .id(String.valueOf(user.getId()))
+                            .name(EVENT_NAME)
+                            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                            .data(UserView.class, user)
+                            .build());
+    }
+
+    void close() {
+        if (Objects.nonNull(subscription)) {
+            subscription.cancel();
+        }
+        sink.close();
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(UserView user) {
+        send(user).whenComplete((result, error) -> {
+            if (Objects.isNull(error)) {
+                subscription.request(1);
+            } else {
+                close();
+            }
+        });
+    }
+
+    /**
+     * Called when the buffer overflows. The client reconnects with its <code>Last-Event-ID</code> and gets the missed
+     * users from the database.
+     */
+    @Override
+    public void onError(Throwable failure) {
+        sink.close();
+    }
+
+    @Override
+    public void onComplete() {
+        sink.close();
+    }
+}
@@ -0,0 +1,102 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.smallrye.mutiny.operators.multi.processors.BroadcastProcessor;
+
+/**
+ * Feed of committed user creations for <code>GET /user/stream</code>. Each client subscribes to the live feed through
+ * its own bounded buffer; a client that falls more than <code>users.stream.buffer-size</code> events behind is
+ * disconnected and resumes from the database with <code>Last-Event-ID</code>.
+ */
+@ApplicationScoped
+public class UserFeed {
+    private static final Logger logger = Logger.getLogger(UserFeed.class);
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final int REPLAY_OVERLAP = 2 * User.ID_ALLOCATION_SIZE;
+
+    @Inject
+    Users users;
+
+    @Inject
+    @ConfigProperty(name = "users.stream.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @Inject
+    @ConfigProperty(name = "users.stream.send-timeout", defaultValue = "PT30S")
+    Duration sendTimeout;
+
+    private final BroadcastProcessor<UserView> created = BroadcastProcessor.create();
+
+    void publish(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserCreated event) {
+        UserView user = UserView.of(event.getUser());
+        // processors require serialized signals, and commits happen on many threads
+        synchronized (created) {
+            created.onNext(user);
+        }
+    }
+
+    /**
+     * Streams the users created after <code>lastEventId</code>, then the live feed. The live subscription starts
+     * before the replay, so a user committed during the replay may be sent twice but is never missed.
+     * <p>
+     * Resuming is best effort. Ids are not assigned in commit order, so a user with a lower id can commit after a
+     * higher id was sent. The replay starts {@link #REPLAY_OVERLAP} ids before <code>lastEventId</code>, and clients
+     * discard the ids they already have. That covers the blocks of one instance allocating ids through Hibernate, but
+     * not the blocks of other instances, the ids <code>ReactiveUsers</code> takes straight from the sequence, or a
+     * long transaction committing after the window has moved past its id: such users can be missed on resume.
+     * <p>
+     * Pages are read on the worker pool and each send is chained on the previous one, so neither a slow client nor a
+     * long replay holds a thread.
+     */
+    public void stream(SseEventSink sink, Sse sse, Optional<Integer> lastEventId) {
+        UserEventStream stream = new UserEventStream(sink, sse);
+        created.onOverflow().buffer(bufferSize).subscribe(stream);
+        lastEventId.map(id -> replay(stream, Math.max(0, id - REPLAY_OVERLAP)))
+                   .orElseGet(() -> CompletableFuture.completedFuture(null))
+                   .whenComplete((ignored, error) -> {
+                       if (Objects.isNull(error)) {
+                           stream.start();
+                       } else {
+                           logger.warnf(error, "Could not replay users! lastEventId=%d", lastEventId.get());
+                           stream.close();
+                       }
+                   });
+    }
+
+    private CompletionStage<Void> replay(UserEventStream stream, int after) {
+        return CompletableFuture.supplyAsync(() -> users.list(after, REPLAY_PAGE_SIZE),
+                                             Infrastructure.getDefaultWorkerPool())
+                                .thenCompose(page -> {
+                                    CompletionStage<?> sent = CompletableFuture.completedFuture(null);
+                                    for (UserView user : page) {
+                                        sent = sent.thenCompose(ignored -> stream.send(user)
+                                                                                 .toCompletableFuture()
+                                                                                 .orTimeout(sendTimeout.toMillis(),
+                                                                                            TimeUnit.MILLISECONDS));
+                                    }
+                                    if (page.size() < REPLAY_PAGE_SIZE) {
+                                        return sent.thenApply(ignored -> null);
+                                    }
+                                    int last = page.get(page.size() - 1).getId();
+                                    return sent.thenCompose(ignored -> stream.isClosed() ? CompletableFuture.<Void>completedFuture(null)
+                                                                                         : replay(stream, last));
+                                });
+    }
+}
@@ -0,0 +1,154 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.vepo.tutorial.quarkus.infra.ConstraintViolationMetrics;
+import io.vepo.tutorial.quarkus.infra.PasswordHasher;
+
+@ApplicationScoped
+public class UserImporter {
+
+    public class Batch {
+        private final List<BatchCreateResult> results = new ArrayList<>();
+        private final List<BatchCreateResult> pendingResults = new ArrayList<>(batchSize);
+        private final List<CreateUserRequest> pendingRequests = new ArrayList<>(batchSize);
+
+        private Batch() {
+        }
+
+        public void add(CreateUserRequest request) {
+            BatchCreateResult result = new BatchCreateResult(results.size(), request.getUsername());
+            results.add(result);
+
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                violationMetrics.record(violations);
+                result.invalid(violations.stream()
+                                         .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                                         .sorted()
+                                         .collect(toList()));
+                return;
+            }
+
+            // imported hashes are stored as they are, so one with an unbounded cost must not get in
+            if (PasswordHasher.hasHashPrefix(request.getHashedPassword())
+                    && !PasswordHasher.isHash(request.getHashedPassword())) {
+                result.invalid(List.of("hashedPassword: should be a valid PBKDF2 hash with "
+                        + PasswordHasher.MIN_ITERATIONS + " to " + PasswordHasher.MAX_ITERATIONS + " iterations"));
+                return;
+            }
+
+            pendingResults.add(result);
+            pendingRequests.add(request);
+            if (pendingRequests.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public void reject(String error) {
+            BatchCreateResult result = new BatchCreateResult(results.size(), null);
+            result.invalid(List.of(error));
+            results.add(result);
+        }
+
+        public List<BatchCreateResult> finish() {
+            flush();
+            return results;
+        }
+
+        private void flush() {
+            if (pendingRequests.isEmpty()) {
+                return;
+            }
+
+            // the whole batch is hashed in parallel on the credential pool
+            List<String> hashedPasswords;
+            try {
+                hashedPasswords = CredentialVerifier.await(verifier.hashAll(pendingRequests.stream()
+                                                                                           .map(CreateUserRequest::getHashedPassword)
+                                                                                           .collect(toList())));
+            } catch (RuntimeException hashFailure) {
+                // only this batch fails, the batches already created keep their results
+                String error = rootCauseMessage(hashFailure);
+                pendingResults.forEach(result -> result.failed(error));
+                pendingResults.clear();
+                pendingRequests.clear();
+                return;
+            }
+
+            try {
+                List<User> pendingUsers = new ArrayList<>(pendingRequests.size());
+                for (int i = 0; i < pendingRequests.size(); ++i) {
+                    pendingUsers.add(toUser(pendingRequests.get(i), hashedPasswords.get(i)));
+                }
+                List<User> created = users.createAll(pendingUsers);
+                for (int i = 0; i < created.size(); ++i) {
+                    pendingResults.get(i).created(created.get(i).getId());
+                }
+            } catch (RuntimeException batchFailure) {
+                // one bad row rolls back the whole batch, retry row by row to find which ones failed
+                for (int i = 0; i < pendingRequests.size(); ++i) {
+                    try {
+                        pendingResults.get(i).created(users.create(toUser(pendingRequests.get(i),
+                                                                          hashedPasswords.get(i))).getId());
+                    } catch (RuntimeException rowFailure) {
+                        pendingResults.get(i).failed(rootCauseMessage(rowFailure));
+                    }
+                }
+            }
+            pendingResults.clear();
+            pendingRequests.clear();
+        }
+    }
+
+    @Inject
+    Users users;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    CredentialVerifier verifier;
+
+    @Inject
+    ConstraintViolationMetrics violationMetrics;
+
+    @Inject
+    @ConfigProperty(name = "users.batch.size", defaultValue = "50")
+    int batchSize;
+
+    public Batch start() {
+        return new Batch();
+    }
+
+    private static User toUser(CreateUserRequest request, String hashedPassword) {
+        return User.builder()
+                   .email(request.getEmail())
+                   .username(request.getUsername())
+                   .firstName(request.getFirstName())
+                   .lastName(request.getLastName())
+                   .admin(request.isAdmin())
+                   .hashedPassword(hashedPassword)
+                   .build();
+    }
+
+    private static String rootCauseMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (Objects.nonNull(cause.getCause()) && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return Objects.requireNonNullElse(cause.getMessage(), cause.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,99 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.json.bind.Jsonb;
+import javax.ws.rs.core.EntityTag;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.vepo.tutorial.quarkus.infra.ExpiringCache;
+
+/**
+ * Serialized JSON of users, ready to be written to the response. A cached serialization is only reused while
+ * {@link Users} returns the same instance it was built from, so it is invalidated together with the username cache.
+ */
+@ApplicationScoped
+public class UserResponses {
+    private static final int ENTITY_TAG_BYTES = 16;
+
+    @Inject
+    Users users;
+
+    @Inject
+    Jsonb jsonb;
+
+    @Inject
+    @ConfigProperty(name = "users.response-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "users.response-cache.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @Inject
+    @ConfigProperty(name = "users.response-cache.ttl", defaultValue = "PT5M")
+    Duration ttl;
+
+    private ExpiringCache<String, SerializedUser> cache;
+
+    @PostConstruct
+    void setup() {
+        cache = new ExpiringCache<>(maxSize, ttl);
+    }
+
+    public Optional<SerializedUser> findByUsername(String username) {
+        Optional<User> user = users.findByUsername(username);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        } else if (!enabled) {
+            return Optional.of(serialize(user.get()));
+        }
+
+        Optional<SerializedUser> cached = cache.getIfPresent(username)
+                                               .filter(serialized -> serialized.isFrom(user.get()));
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        SerializedUser serialized = serialize(user.get());
+        cache.put(username, serialized);
+        return Optional.of(serialized);
+    }
+
+    void evict(@Observes UserCreated event) {
+        cache.invalidate(event.getUser().getUsername());
+    }
+
+    void evict(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserEnabledChanged event) {
+        cache.invalidate(event.getUsername());
+    }
+
+    private SerializedUser serialize(User user) {
+        byte[] json = jsonb.toJson(UserView.of(user)).getBytes(UTF_8);
+        return new SerializedUser(user, json, entityTag(json));
+    }
+
+    private static EntityTag entityTag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new EntityTag(Base64.getUrlEncoder()
+                                       .withoutPadding()
+                                       .encodeToString(Arrays.copyOf(digest, ENTITY_TAG_BYTES)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.vepo.tutorial.quarkus.user;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.QueryParam;
+
+public class UserSearchRequest {
+    public static final int MAX_PAGE = 10_000;
+
+    @QueryParam("username")
+    private String username;
+
+    @QueryParam("email")
+    private String email;
+
+    @QueryParam("name")
+    private String name;
+
+    @QueryParam("admin")
+    private Boolean admin;
+
+    @QueryParam("enabled")
+    private Boolean enabled;
+
+    @QueryParam("sort")
+    @DefaultValue("id")
+    @Pattern(regexp = "id|username|email|firstName|lastName", message = "sort should be one of id, username, email, firstName or lastName")
+    private String sort;
+
+    @QueryParam("order")
+    @DefaultValue("asc")
+    @Pattern(regexp = "asc|desc", message = "order should be asc or desc")
+    private String order;
+
+    // deep pages are scanned and discarded by PostgreSQL, GET /user?after= pages through all users
+    @QueryParam("page")
+    @DefaultValue("0")
+    @Min(0)
+    @Max(value = MAX_PAGE, message = "page should be at most {value}, use GET /user?after= to read further")
+    private int page;
+
+    @QueryParam("size")
+    @DefaultValue("50")
+    @Min(1)
+    @Max(1000)
+    private int size;
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Boolean getAdmin() {
+        return admin;
+    }
+
+    public void setAdmin(Boolean admin) {
+        this.admin = admin;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(Boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSearchRequest [username=" + username + ", email=" + email + ", name=" + name + ", admin=" + admin
+                + ", enabled=" + enabled + ", sort=" + sort + ", order=" + order + ", page=" + page + ", size="
+                + size + "]";
+    }
+
+}
@@ -0,0 +1,64 @@
+package io.vepo.tutorial.quarkus.user;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+@RegisterForReflection
+public class UserSuggestion {
+    private final int id;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+
+    public UserSuggestion(int id, String username, String firstName, String lastName) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + id;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        UserSuggestion other = (UserSuggestion) obj;
+        return id == other.id;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSuggestion [id=" + id + ", username=" + username + ", firstName=" + firstName + ", lastName="
+                + lastName + "]";
+    }
+
+}
@@ -0,0 +1,144 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+
+import org.jboss.logging.Logger;
+
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Prefix index over the usernames, first names and last names of enabled users for autocomplete. Each term is
+ * lower-cased, cut to {@link #MAX_TERM_LENGTH} characters and stored in a {@link ConcurrentSkipListMap} as
+ * <code>term\0id</code>, so a prefix lookup is a range scan that stops at the first key without the prefix. All the
+ * keys of a user share one {@link UserSuggestion}.
+ * <p>
+ * The suggestions of disabled users are kept out of the index but in memory, so enabling a user again only needs its
+ * id and does not query PostgreSQL.
+ */
+@ApplicationScoped
+public class UserSuggestions {
+    private static final Logger logger = Logger.getLogger(UserSuggestions.class);
+    public static final int MAX_TERM_LENGTH = 32;
+    private static final char SEPARATOR = '\0';
+
+    @Inject
+    Users users;
+
+    private final ConcurrentSkipListMap<String, UserSuggestion> index = new ConcurrentSkipListMap<>();
+    private final Map<Integer, UserSuggestion> suggestions = new ConcurrentHashMap<>();
+    // users enabled or disabled while the index is built, the scan may have read them before the change
+    private final Map<Integer, Boolean> changedWhileBuilding = new ConcurrentHashMap<>();
+    private volatile boolean built = false;
+
+    void start(@Observes StartupEvent event) {
+        // the index is filled in the background, until then suggestions are partial
+        Thread thread = new Thread(this::build, "user-suggestions-build");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void build() {
+        try {
+            users.forEach(0, user -> {
+                UserSuggestion suggestion = new UserSuggestion(user.getId(), user.getUsername(), user.getFirstName(),
+                                                               user.getLastName());
+                suggestions.put(suggestion.getId(), suggestion);
+                if (changedWhileBuilding.getOrDefault(suggestion.getId(), user.isEnabled())) {
+                    add(suggestion);
+                }
+            });
+            logger.infof("User suggestions loaded! terms=%d", size());
+        } catch (RuntimeException e) {
+            logger.error("Could not load user suggestions!", e);
+        } finally {
+            built = true;
+            changedWhileBuilding.forEach(this::update);
+            changedWhileBuilding.clear();
+        }
+    }
+
+    void register(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserCreated event) {
+        User user = event.getUser();
+        UserSuggestion suggestion = new UserSuggestion(user.getId(), user.getUsername(), user.getFirstName(),
+                                                       user.getLastName());
+        suggestions.put(suggestion.getId(), suggestion);
+        add(suggestion);
+    }
+
+    void update(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserEnabledChanged event) {
+        if (!built) {
+            changedWhileBuilding.put(event.getUserId(), event.isEnabled());
+        }
+        update(event.getUserId(), event.isEnabled());
+    }
+
+    private void update(int id, boolean enabled) {
+        // a user the scan did not read yet is added or skipped by the scan itself
+        UserSuggestion suggestion = suggestions.get(id);
+        if (Objects.isNull(suggestion)) {
+            return;
+        } else if (enabled) {
+            add(suggestion);
+        } else {
+            remove(suggestion);
+        }
+    }
+
+    private void add(UserSuggestion suggestion) {
+        terms(suggestion).forEach(term -> index.put(key(term, suggestion.getId()), suggestion));
+    }
+
+    private void remove(UserSuggestion suggestion) {
+        terms(suggestion).forEach(term -> index.remove(key(term, suggestion.getId())));
+    }
+
+    /**
+     * @return up to <code>limit</code> distinct users with a username, first name or last name starting with
+     *         <code>prefix</code>, ignoring case, ordered by the matching term
+     */
+    public List<UserSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        List<UserSuggestion> suggestions = new ArrayList<>(limit);
+        for (Map.Entry<String, UserSuggestion> entry : index.tailMap(normalized).entrySet()) {
+            if (suggestions.size() == limit || !entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            if (!suggestions.contains(entry.getValue())) {
+                suggestions.add(entry.getValue());
+            }
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private static Stream<String> terms(UserSuggestion suggestion) {
+        return Stream.of(suggestion.getUsername(), suggestion.getFirstName(), suggestion.getLastName())
+                     .filter(Objects::nonNull)
+                     .map(UserSuggestions::normalize)
+                     .filter(term -> !term.isEmpty());
+    }
+
+    private static String normalize(String term) {
+        String normalized = term.strip().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_TERM_LENGTH ? normalized.substring(0, MAX_TERM_LENGTH) : normalized;
+    }
+
+    private static String key(String term, int id) {
+        return term + SEPARATOR + id;
+    }
+}
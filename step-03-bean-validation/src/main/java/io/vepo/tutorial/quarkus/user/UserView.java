@@ -0,0 +1,99 @@
+package io.vepo.tutorial.quarkus.user;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Read-only projection of {@link User}. It is built directly by the queries, so listing users does not hydrate
+ * managed entities, and it has no password hash to leak.
+ */
+@RegisterForReflection
+public class UserView {
+    private final Integer id;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final boolean admin;
+    private final boolean enabled;
+
+    public UserView(Integer id, String username, String email, String firstName, String lastName, boolean admin,
+                    boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.admin = admin;
+        this.enabled = enabled;
+    }
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                            user.getLastName(), user.isAdmin(), user.isEnabled());
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((id == null) ? 0 : id.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        UserView other = (UserView) obj;
+        if (id == null) {
+            if (other.id != null) {
+                return false;
+            }
+        } else if (!id.equals(other.id)) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "UserView [id=" + id + ", username=" + username + ", email=" + email + ", firstName=" + firstName
+                + ", lastName=" + lastName + ", admin=" + admin + ", enabled=" + enabled + "]";
+    }
+
+}
@@ -1,46 +1,373 @@
 package io.vepo.tutorial.quarkus.user;
 
+import static java.util.stream.Collectors.toList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 import javax.validation.constraints.Size;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.stat.Statistics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vepo.tutorial.quarkus.infra.CacheRegionStatistics;
+import io.vepo.tutorial.quarkus.infra.CacheStatistics;
+import io.vepo.tutorial.quarkus.infra.ExpiringCache;
+import io.vepo.tutorial.quarkus.infra.Measured;
+
 @Transactional
 @ApplicationScoped
 public class Users {
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final char LIKE_ESCAPE = '\\';
+
     @PersistenceContext
     EntityManager em;
 
-    public List<User> list() {
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    Event<UserCreated> created;
+
+    @Inject
+    Event<UserEnabledChanged> enabledChanged;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @ConfigProperty(name = "users.cache.max-size", defaultValue = "10000")
+    int cacheMaxSize;
+
+    @Inject
+    @ConfigProperty(name = "users.cache.ttl", defaultValue = "PT5M")
+    Duration cacheTtl;
+
+    private ExpiringCache<String, Optional<User>> usernameCache;
+    private DistributionSummary listSize;
+
+    @PostConstruct
+    void setup() {
+        usernameCache = new ExpiringCache<>(cacheMaxSize, cacheTtl);
+        listSize = DistributionSummary.builder("users.list.size")
+                                      .publishPercentileHistogram()
+                                      .register(registry);
+    }
+
+    @Measured
+    public List<UserView> list() {
+        CriteriaQuery<UserView> query = selectViews();
+        List<UserView> users = em.createQuery(query).getResultList();
+        listSize.record(users.size());
+        return users;
+    }
+
+    @Measured("listPage")
+    public List<UserView> list(int after, int limit) {
+        List<UserView> users = em.createQuery(listAfter(after))
+                                 .setMaxResults(limit)
+                                 .getResultList();
+        listSize.record(users.size());
+        return users;
+    }
+
+    /**
+     * Reads all users with id greater than <code>after</code> through a forward-only cursor. Rows are projected
+     * straight into {@link UserView}, so nothing accumulates in the persistence context.
+     */
+    @Measured
+    public void forEach(int after, Consumer<UserView> consumer) {
+        try (Stream<UserView> stream = em.createQuery(listAfter(after))
+                                         .setHint(QueryHints.FETCH_SIZE, STREAM_FETCH_SIZE)
+                                         .getResultStream()) {
+            stream.forEach(consumer);
+        }
+    }
+
+    /**
+     * Filters are bound as parameters, never inlined, so each combination of filters always renders the same SQL and
+     * PostgreSQL can reuse its plan.
+     */
+    @Measured
+    public List<UserView> search(UserSearchRequest request) {
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<UserView> query = selectViews();
+        Root<?> root = query.getRoots().iterator().next();
+        List<Predicate> predicates = new ArrayList<>();
+        List<Consumer<TypedQuery<UserView>>> bindings = new ArrayList<>();
+
+        if (Objects.nonNull(request.getUsername())) {
+            ParameterExpression<String> username = criteriaBuilder.parameter(String.class, "username");
+            predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("username")), username, LIKE_ESCAPE));
+            bindings.add(typedQuery -> typedQuery.setParameter(username, likePattern(request.getUsername(), false)));
+        }
+        if (Objects.nonNull(request.getEmail())) {
+            ParameterExpression<String> email = criteriaBuilder.parameter(String.class, "email");
+            predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), email, LIKE_ESCAPE));
+            bindings.add(typedQuery -> typedQuery.setParameter(email, likePattern(request.getEmail(), false)));
+        }
+        if (Objects.nonNull(request.getName())) {
+            ParameterExpression<String> name = criteriaBuilder.parameter(String.class, "name");
+            predicates.add(criteriaBuilder.or(criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), name, LIKE_ESCAPE),
+                                              criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), name, LIKE_ESCAPE)));
+            bindings.add(typedQuery -> typedQuery.setParameter(name, likePattern(request.getName(), true)));
+        }
+        if (Objects.nonNull(request.getAdmin())) {
+            ParameterExpression<Boolean> admin = criteriaBuilder.parameter(Boolean.class, "admin");
+            predicates.add(criteriaBuilder.equal(root.get("admin"), admin));
+            bindings.add(typedQuery -> typedQuery.setParameter(admin, request.getAdmin()));
+        }
+        if (Objects.nonNull(request.getEnabled())) {
+            ParameterExpression<Boolean> enabled = criteriaBuilder.parameter(Boolean.class, "enabled");
+            predicates.add(criteriaBuilder.equal(root.get("enabled"), enabled));
+            bindings.add(typedQuery -> typedQuery.setParameter(enabled, request.getEnabled()));
+        }
+
+        Path<?> sort = root.get(request.getSort());
+        query.where(predicates.toArray(new Predicate[0]))
+             .orderBy("desc".equals(request.getOrder()) ? criteriaBuilder.desc(sort) : criteriaBuilder.asc(sort),
+                      criteriaBuilder.asc(root.get("id")));
+
+        TypedQuery<UserView> typedQuery = em.createQuery(query);
+        bindings.forEach(binding -> binding.accept(typedQuery));
+        long offset = (long) request.getPage() * request.getSize();
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Search offset out of range! page=" + request.getPage() + ", size="
+                    + request.getSize());
+        }
+        return typedQuery.setFirstResult((int) offset)
+                         .setMaxResults(request.getSize())
+                         .getResultList();
+    }
+
+    private static String likePattern(String value, boolean substring) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                              .replace("\\", "\\\\")
+                              .replace("%", "\\%")
+                              .replace("_", "\\_");
+        return substring ? "%" + escaped + "%" : escaped + "%";
+    }
+
+    public void forEachKey(BiConsumer<String, String> consumer) {
+        try (Stream<Object[]> stream = em.createQuery("SELECT usr.username, usr.email FROM User usr", Object[].class)
+                                         .setHint(QueryHints.FETCH_SIZE, STREAM_FETCH_SIZE)
+                                         .getResultStream()) {
+            stream.forEach(key -> consumer.accept((String) key[0], (String) key[1]));
+        }
+    }
+
+    public boolean existsByUsername(String username) {
+        return !em.createQuery("SELECT usr.id FROM User usr WHERE usr.username = :username", Integer.class)
+                  .setParameter("username", username)
+                  .setMaxResults(1)
+                  .getResultList()
+                  .isEmpty();
+    }
+
+    public boolean existsByEmail(String email) {
+        return !em.createQuery("SELECT usr.id FROM User usr WHERE usr.email = :email", Integer.class)
+                  .setParameter("email", email)
+                  .setMaxResults(1)
+                  .getResultList()
+                  .isEmpty();
+    }
+
+    private CriteriaQuery<UserView> listAfter(int after) {
         CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
-        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
-        query.from(User.class);
-        return em.createQuery(query).getResultList();
+        CriteriaQuery<UserView> query = selectViews();
+        Root<?> root = query.getRoots().iterator().next();
+        return query.where(criteriaBuilder.greaterThan(root.get("id"), after))
+                    .orderBy(criteriaBuilder.asc(root.get("id")));
     }
 
+    private CriteriaQuery<UserView> selectViews() {
+        CriteriaBuilder criteriaBuilder = em.getCriteriaBuilder();
+        CriteriaQuery<UserView> query = criteriaBuilder.createQuery(UserView.class);
+        Root<User> root = query.from(User.class);
+        return query.select(criteriaBuilder.construct(UserView.class,
+                                                      root.get("id"),
+                                                      root.get("username"),
+                                                      root.get("email"),
+                                                      root.get("firstName"),
+                                                      root.get("lastName"),
+                                                      root.get("admin"),
+                                                      root.get("enabled")));
+    }
+
+    @Measured
     public User create(User user) {
         if (Objects.nonNull(user.getId())) {
             throw new IllegalStateException("Id should be null!");
         }
         em.persist(user);
+        // with sequence ids the insert is only queued, detaching before the flush would drop it
+        em.flush();
         em.detach(user);
+        invalidateOnCompletion(List.of(user.getUsername()));
+        created.fire(new UserCreated(user));
         return user;
     }
 
+    /**
+     * Persists all users in a single transaction. Ids come from a pooled sequence, so Hibernate can send the inserts
+     * as JDBC batches.
+     */
+    @Measured
+    public List<User> createAll(List<User> users) {
+        if (users.stream().anyMatch(user -> Objects.nonNull(user.getId()))) {
+            throw new IllegalStateException("Id should be null!");
+        }
+        users.forEach(em::persist);
+        em.flush();
+        em.clear();
+        invalidateOnCompletion(users.stream().map(User::getUsername).collect(toList()));
+        users.forEach(user -> created.fire(new UserCreated(user)));
+        return users;
+    }
+
+    /**
+     * Enables or disables the user with a single bulk update by username, without loading or dirty checking the
+     * entity. Disabling is the soft delete of users. Only when the flag changed, the id for the event is read with a
+     * scalar query.
+     *
+     * @return <code>false</code> if no user has that username or it was already in that state
+     */
+    @Measured
+    public boolean setEnabled(String username, boolean enabled) {
+        int updated = em.createQuery("UPDATE User usr SET usr.enabled = :enabled WHERE usr.username = :username AND usr.enabled <> :enabled")
+                        .setParameter("enabled", enabled)
+                        .setParameter("username", username)
+                        .executeUpdate();
+        if (updated == 0) {
+            return false;
+        }
+        int id = em.createQuery("SELECT usr.id FROM User usr WHERE usr.username = :username", Integer.class)
+                   .setParameter("username", username)
+                   .getSingleResult();
+        invalidateOnCompletion(List.of(username));
+        enabledChanged.fire(new UserEnabledChanged(id, username, enabled));
+        return true;
+    }
+
+    private void invalidateOnCompletion(Collection<String> usernames) {
+        usernames.forEach(usernameCache::invalidate);
+        // a lookup running before the commit could still cache the old value, so invalidate again after it
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    usernames.forEach(usernameCache::invalidate);
+                }
+            }
+        });
+    }
+
+    /**
+     * Finds an enabled user, disabled users are soft deleted. Cache hits do not begin a transaction. Only a miss opens one, through {@link #loadByUsername(String)}: Quarkus
+     * also intercepts self-invocations, as long as the method is not private.
+     */
+    @Measured
+    @Transactional(TxType.SUPPORTS)
     public Optional<User> findByUsername(@Size(min = 4, max = 15) String username) {
+        return usernameCache.get(username, this::loadByUsername);
+    }
+
+    Optional<User> loadByUsername(String username) {
         TypedQuery<User> query = em.createNamedQuery("User.findByUsername", User.class);
         query.setParameter("username", username);
-        return query.getResultStream().findFirst();
+        // a result stream is a scroll, which Hibernate never serves from the query cache
+        return query.getResultList().stream().findFirst();
+    }
+
+    /**
+     * Replaces the password hash only if it is still <code>currentHash</code>, so a concurrent change is not lost.
+     *
+     * @return <code>true</code> if the hash was replaced
+     */
+    @Measured
+    public boolean updateHashedPassword(String username, String currentHash, String newHash) {
+        int updated = em.createQuery("UPDATE User usr SET usr.hashedPassword = :newHash WHERE usr.username = :username AND usr.hashedPassword = :currentHash")
+                        .setParameter("newHash", newHash)
+                        .setParameter("username", username)
+                        .setParameter("currentHash", currentHash)
+                        .executeUpdate();
+        invalidateOnCompletion(List.of(username));
+        return updated > 0;
+    }
+
+    /**
+     * Drops what is cached for the username after it was written outside Hibernate, which only invalidates its query
+     * cache for its own writes.
+     */
+    @Transactional(TxType.SUPPORTS)
+    public void invalidate(String username) {
+        usernameCache.invalidate(username);
+        sessionFactory().getCache().evictQueryRegion(User.FIND_BY_USERNAME_REGION);
+    }
+
+    public CacheStatistics cacheStatistics() {
+        return usernameCache.statistics();
+    }
+
+    @Transactional(TxType.SUPPORTS)
+    public List<CacheRegionStatistics> cacheRegionStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<CacheRegionStatistics> regions = new ArrayList<>();
+        Optional.ofNullable(statistics.getDomainDataRegionStatistics(User.class.getName()))
+                .ifPresent(region -> regions.add(regionStatistics(User.class.getName(), region)));
+        Optional.ofNullable(statistics.getQueryRegionStatistics(User.FIND_BY_USERNAME_REGION))
+                .ifPresent(region -> regions.add(regionStatistics(User.FIND_BY_USERNAME_REGION, region)));
+        return regions;
+    }
+
+    private static CacheRegionStatistics regionStatistics(String name, org.hibernate.stat.CacheRegionStatistics region) {
+        return new CacheRegionStatistics(name,
+                                         region.getElementCountInMemory(),
+                                         region.getHitCount(),
+                                         region.getMissCount(),
+                                         region.getPutCount());
+    }
+
+    private SessionFactory sessionFactory() {
+        return em.getEntityManagerFactory().unwrap(SessionFactory.class);
     }
 
+    @Measured
     public User get(int userId) {
         return em.find(User.class, userId);
     }
@@ -0,0 +1,27 @@
+-- ids are allocated by Hibernate in blocks of 50 (User.id allocationSize)
+CREATE SEQUENCE seq_users_id START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE tb_users (
+    id              INTEGER      NOT NULL,
+    email           VARCHAR(255),
+    username        VARCHAR(255),
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    admin           BOOLEAN      NOT NULL,
+    hashed_password VARCHAR(255),
+    enabled         BOOLEAN      NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uq_users_username UNIQUE (username),
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+CREATE INDEX ix_users_admin_enabled ON tb_users (admin, enabled);
+
+-- Indexes used by GET /user/search
+-- case-insensitive prefix search on username and email
+CREATE INDEX ix_users_username_prefix ON tb_users (lower(username) text_pattern_ops);
+CREATE INDEX ix_users_email_prefix ON tb_users (lower(email) text_pattern_ops);
+-- substring search on names
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX ix_users_first_name_trgm ON tb_users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX ix_users_last_name_trgm ON tb_users USING gin (lower(last_name) gin_trgm_ops);
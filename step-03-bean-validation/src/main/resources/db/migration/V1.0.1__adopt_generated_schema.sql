@@ -0,0 +1,20 @@
+-- Databases created before Flyway, when Hibernate generated the schema, are baselined at 1.0.0 without running
+-- V1.0.0: their id is a serial column, and the id sequence and the indexes are missing. Every statement is a no-op on
+-- a database created by V1.0.0.
+
+-- ids come from seq_users_id, as in V1.0.0, instead of the serial default
+ALTER TABLE tb_users ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS tb_users_id_seq;
+CREATE SEQUENCE IF NOT EXISTS seq_users_id START WITH 1 INCREMENT BY 50;
+-- Hibernate hands out the block of 50 ids ending at each value it fetches, so the next value must be at least 50
+-- above the existing ids. Never moves the sequence backwards.
+SELECT setval('seq_users_id', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) FROM tb_users) + 50)) FROM seq_users_id;
+
+CREATE INDEX IF NOT EXISTS ix_users_admin_enabled ON tb_users (admin, enabled);
+
+-- Indexes used by GET /user/search
+CREATE INDEX IF NOT EXISTS ix_users_username_prefix ON tb_users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS ix_users_email_prefix ON tb_users (lower(email) text_pattern_ops);
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS ix_users_first_name_trgm ON tb_users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_users_last_name_trgm ON tb_users USING gin (lower(last_name) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- column lengths match the maximum sizes accepted by CreateUserRequest (User.MAX_*_LENGTH)
+ALTER TABLE tb_users
+    ALTER COLUMN email TYPE VARCHAR(254),
+    ALTER COLUMN username TYPE VARCHAR(15),
+    ALTER COLUMN first_name TYPE VARCHAR(100),
+    ALTER COLUMN last_name TYPE VARCHAR(100);
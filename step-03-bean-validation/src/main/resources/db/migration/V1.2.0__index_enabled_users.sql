@@ -0,0 +1,3 @@
+-- disabled users are soft deleted, so logins and GET /user/{username} only look up enabled users by username
+-- (User.findByUsername); JPA @Index cannot express the WHERE clause, so the index only lives here
+CREATE INDEX IF NOT EXISTS ix_users_enabled_username ON tb_users (username) WHERE enabled;
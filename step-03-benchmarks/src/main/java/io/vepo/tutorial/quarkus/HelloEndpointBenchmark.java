@@ -0,0 +1,77 @@
+package io.vepo.tutorial.quarkus;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request work of <code>/hello/json</code>: generating the {@link HelloResponse}, wrapping it in a
+ * {@link Response} the way RESTEasy does and writing it with JSON-B. The generation alone is also compared with the
+ * previous implementation that created a new {@link Random} per request. Run with <code>-prof gc</code> to see the
+ * allocation rate per call, most of it comes from the response and the serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HelloEndpointBenchmark {
+    @State(Scope.Thread)
+    public static class Output {
+        private final ByteArrayOutputStream stream = new ByteArrayOutputStream(256);
+    }
+
+    private final HelloEndpoint endpoint = new HelloEndpoint();
+    private Jsonb jsonb;
+
+    @Setup
+    public void setup() {
+        jsonb = JsonbBuilder.create();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public HelloResponse randomPerRequest() {
+        HelloResponse response = new HelloResponse();
+        response.setCode(new Random().nextInt());
+        response.setMessage("Hello World!");
+        return response;
+    }
+
+    @Benchmark
+    public HelloResponse endpoint() {
+        return endpoint.sayHelloWithJson();
+    }
+
+    @Benchmark
+    public Response request(Output output) {
+        Response response = Response.ok(endpoint.sayHelloWithJson(), MediaType.APPLICATION_JSON_TYPE).build();
+        output.stream.reset();
+        jsonb.toJson(response.getEntity(), output.stream);
+        return response;
+    }
+}
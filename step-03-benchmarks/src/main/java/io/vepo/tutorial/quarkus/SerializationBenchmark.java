@@ -0,0 +1,66 @@
+package io.vepo.tutorial.quarkus;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.json.bind.Jsonb;
+import javax.json.bind.JsonbBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vepo.tutorial.quarkus.user.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private Jsonb jsonb;
+    private User user;
+    private HelloResponse helloResponse;
+
+    @Setup
+    public void setup() {
+        jsonb = JsonbBuilder.create();
+
+        user = User.builder()
+                   .email("vepo@tutorial.io")
+                   .username("vepo")
+                   .firstName("Victor")
+                   .lastName("Osorio")
+                   .admin(false)
+                   .hashedPassword("5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8")
+                   .build();
+        user.setId(1);
+
+        helloResponse = new HelloResponse();
+        helloResponse.setCode(42);
+        helloResponse.setMessage("Hello World!");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        jsonb.close();
+    }
+
+    @Benchmark
+    public String user() {
+        return jsonb.toJson(user);
+    }
+
+    @Benchmark
+    public String helloResponse() {
+        return jsonb.toJson(helloResponse);
+    }
+}
@@ -0,0 +1,86 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.hibernate.stat.Statistics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Wires {@link Users} and {@link UniqueUserKeys} the way Quarkus does, but over an in-memory H2 database and
+ * resource-local transactions.
+ */
+public class BenchmarkUsers implements AutoCloseable {
+    private final EntityManagerFactory factory;
+    private final EntityManager em;
+    private final LocalTransactions transactions;
+    private final Users users;
+    private final UniqueUserKeys keys;
+
+    public BenchmarkUsers() {
+        this(Map.of());
+    }
+
+    /**
+     * @param properties overrides of the <code>benchmark</code> persistence unit properties
+     */
+    public BenchmarkUsers(Map<String, Object> properties) {
+        factory = new HibernatePersistenceProvider().createEntityManagerFactory("benchmark", properties);
+        em = factory.createEntityManager();
+        transactions = new LocalTransactions(em);
+
+        users = new Users();
+        users.em = em;
+        users.transactionRegistry = transactions;
+        users.registry = new SimpleMeterRegistry();
+        users.cacheMaxSize = 10_000;
+        users.cacheTtl = Duration.ofMinutes(5);
+        users.setup();
+
+        keys = new UniqueUserKeys();
+        keys.users = users;
+        keys.expectedUsers = 1_000_000;
+        keys.falsePositiveRate = 0.01;
+        keys.setup();
+
+        users.created = new LocalEvent<UserCreated>().observe(keys::register);
+        users.enabledChanged = new LocalEvent<>();
+        transactions.run(() -> keys.warmUp());
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        return transactions.call(work);
+    }
+
+    public Users users() {
+        return users;
+    }
+
+    public UniqueUserKeys keys() {
+        return keys;
+    }
+
+    /**
+     * Detaches every entity, so the next reads can only be served by the database or the second-level cache.
+     */
+    public void clear() {
+        em.clear();
+    }
+
+    public Statistics statistics() {
+        return factory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void close() {
+        em.close();
+        factory.close();
+    }
+}
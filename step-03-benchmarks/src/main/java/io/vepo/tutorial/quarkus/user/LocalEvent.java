@@ -0,0 +1,55 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+import javax.enterprise.event.Event;
+import javax.enterprise.event.NotificationOptions;
+import javax.enterprise.util.TypeLiteral;
+
+/**
+ * Synchronous stand-in for CDI {@link Event}, delivering each event to the registered observers.
+ */
+public class LocalEvent<T> implements Event<T> {
+    private final List<Consumer<T>> observers = new ArrayList<>();
+
+    public LocalEvent<T> observe(Consumer<T> observer) {
+        observers.add(observer);
+        return this;
+    }
+
+    @Override
+    public void fire(T event) {
+        observers.forEach(observer -> observer.accept(event));
+    }
+
+    @Override
+    public <U extends T> CompletionStage<U> fireAsync(U event) {
+        fire(event);
+        return CompletableFuture.completedFuture(event);
+    }
+
+    @Override
+    public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions options) {
+        return fireAsync(event);
+    }
+
+    @Override
+    public Event<T> select(Annotation... qualifiers) {
+        return this;
+    }
+
+    @Override
+    public <U extends T> Event<U> select(Class<U> subtype, Annotation... qualifiers) {
+        throw new UnsupportedOperationException("Qualified events are not supported!");
+    }
+
+    @Override
+    public <U extends T> Event<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+        throw new UnsupportedOperationException("Qualified events are not supported!");
+    }
+}
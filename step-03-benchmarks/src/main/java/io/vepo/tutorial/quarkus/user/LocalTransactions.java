@@ -0,0 +1,99 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Resource-local stand-in for the JTA transactions Quarkus opens around {@link Users}. Synchronizations registered by
+ * the repository run when the surrounding {@link #call(Supplier)} completes.
+ */
+public class LocalTransactions implements TransactionSynchronizationRegistry {
+    private final EntityManager em;
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+    private final Map<Object, Object> resources = new HashMap<>();
+    private boolean rollbackOnly;
+
+    public LocalTransactions(EntityManager em) {
+        this.em = em;
+    }
+
+    public <T> T call(Supplier<T> work) {
+        EntityTransaction transaction = em.getTransaction();
+        transaction.begin();
+        try {
+            T result = work.get();
+            if (rollbackOnly) {
+                transaction.rollback();
+                complete(Status.STATUS_ROLLEDBACK);
+            } else {
+                transaction.commit();
+                complete(Status.STATUS_COMMITTED);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            complete(Status.STATUS_ROLLEDBACK);
+            throw e;
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void complete(int status) {
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        synchronizations.clear();
+        resources.clear();
+        rollbackOnly = false;
+    }
+
+    @Override
+    public Object getTransactionKey() {
+        return em.getTransaction().isActive() ? em.getTransaction() : null;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+        resources.put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+        return resources.get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization synchronization) {
+        synchronizations.add(synchronization);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+        return em.getTransaction().isActive() ? Status.STATUS_ACTIVE : Status.STATUS_NO_TRANSACTION;
+    }
+
+    @Override
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public boolean getRollbackOnly() {
+        return rollbackOnly;
+    }
+}
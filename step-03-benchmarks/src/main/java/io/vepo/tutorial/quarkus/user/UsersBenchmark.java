@@ -0,0 +1,78 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Users} repository against an in-memory H2 database. The uncached lookup invalidates the username cache
+ * before each call, so it measures the named query itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsersBenchmark {
+    private static final int SEED_USERS = 10_000;
+
+    private BenchmarkUsers benchmarkUsers;
+    private Users users;
+    private int next;
+
+    @Setup
+    public void setup() {
+        benchmarkUsers = new BenchmarkUsers();
+        users = benchmarkUsers.users();
+        for (next = 0; next < SEED_USERS; ++next) {
+            User user = user(next);
+            benchmarkUsers.inTransaction(() -> users.create(user));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        benchmarkUsers.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByUsernameCached() {
+        return benchmarkUsers.inTransaction(() -> users.findByUsername("user" + (next / 2)));
+    }
+
+    @Benchmark
+    public Optional<User> findByUsernameUncached() {
+        String username = "user" + (next / 2);
+        users.invalidate(username);
+        return benchmarkUsers.inTransaction(() -> users.findByUsername(username));
+    }
+
+    @Benchmark
+    public User create() {
+        User user = user(next++);
+        return benchmarkUsers.inTransaction(() -> users.create(user));
+    }
+
+    private static User user(int index) {
+        return User.builder()
+                   .email("user" + index + "@tutorial.io")
+                   .username("user" + index)
+                   .firstName("First" + index)
+                   .lastName("Last" + index)
+                   .admin(false)
+                   .hashedPassword("5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8")
+                   .build();
+    }
+}
@@ -0,0 +1,128 @@
+package io.vepo.tutorial.quarkus.user;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+
+import org.hibernate.validator.HibernateValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hibernate Validator on {@link CreateUserRequest}: the built-in constraints, the <code>@Pattern</code> regex, the
+ * repeatable <code>@ReservedWord</code> and the uniqueness checks. The <code>junk</code> benchmarks validate a huge
+ * invalid payload in fail-fast mode, as the application does, and collecting every violation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    private BenchmarkUsers benchmarkUsers;
+    private ValidatorFactory validatorFactory;
+    private ValidatorFactory collectingValidatorFactory;
+    private Validator validator;
+    private Validator collectingValidator;
+    private CreateUserRequest valid;
+    private CreateUserRequest invalidPattern;
+    private CreateUserRequest reservedWord;
+    private CreateUserRequest junk;
+
+    @Setup
+    public void setup() {
+        benchmarkUsers = new BenchmarkUsers();
+        validatorFactory = buildValidatorFactory(benchmarkUsers.keys(), true);
+        validator = validatorFactory.getValidator();
+        collectingValidatorFactory = buildValidatorFactory(benchmarkUsers.keys(), false);
+        collectingValidator = collectingValidatorFactory.getValidator();
+
+        valid = request("vepo", "vepo@tutorial.io");
+        invalidPattern = request("2vepo", "vepo@tutorial.io");
+        reservedWord = request("admin", "admin@tutorial.io");
+        junk = request("2" + "a-".repeat(32 * 1024) + "admin", "@".repeat(64 * 1024));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+        collectingValidatorFactory.close();
+        benchmarkUsers.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> valid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> invalidPattern() {
+        return validator.validate(invalidPattern);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> reservedWord() {
+        return validator.validate(reservedWord);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> junk() {
+        return validator.validate(junk);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateUserRequest>> junkAllViolations() {
+        return collectingValidator.validate(junk);
+    }
+
+    static CreateUserRequest request(String username, String email) {
+        CreateUserRequest request = new CreateUserRequest();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setFirstName("Victor");
+        request.setLastName("Osorio");
+        request.setHashedPassword("5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8");
+        return request;
+    }
+
+    static ValidatorFactory buildValidatorFactory(UniqueUserKeys keys, boolean failFast) {
+        var configuration = Validation.byProvider(HibernateValidator.class).configure().failFast(failFast);
+        ConstraintValidatorFactory defaultFactory = configuration.getDefaultConstraintValidatorFactory();
+        return configuration.constraintValidatorFactory(new ConstraintValidatorFactory() {
+            @Override
+            public <T extends ConstraintValidator<?, ?>> T getInstance(Class<T> key) {
+                if (key == UniqueUsernameValidator.class) {
+                    UniqueUsernameValidator validator = new UniqueUsernameValidator();
+                    validator.keys = keys;
+                    return key.cast(validator);
+                } else if (key == UniqueEmailValidator.class) {
+                    UniqueEmailValidator validator = new UniqueEmailValidator();
+                    validator.keys = keys;
+                    return key.cast(validator);
+                }
+                return defaultFactory.getInstance(key);
+            }
+
+            @Override
+            public void releaseInstance(ConstraintValidator<?, ?> instance) {
+                defaultFactory.releaseInstance(instance);
+            }
+        }).buildValidatorFactory();
+    }
+}
@@ -0,0 +1,122 @@
+package io.vepo.tutorial.quarkus.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.infinispan.quarkus.hibernate.cache.QuarkusInfinispanRegionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Repeated reads of a cached {@link User} must not reach the database. The second-level cache uses the region factory
+ * Quarkus configures, and the persistence context is cleared before each read, so only the entity and query caches
+ * can serve it, which their hit counts confirm.
+ */
+class UsersCacheTest {
+    private static final int READS = 10;
+
+    private BenchmarkUsers benchmarkUsers;
+    private Users users;
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        benchmarkUsers = new BenchmarkUsers(Map.of(AvailableSettings.CACHE_REGION_FACTORY, QuarkusInfinispanRegionFactory.class.getName(),
+                                                   AvailableSettings.USE_SECOND_LEVEL_CACHE, "true",
+                                                   AvailableSettings.USE_QUERY_CACHE, "true",
+                                                   AvailableSettings.GENERATE_STATISTICS, "true",
+                                                   "javax.persistence.jdbc.url", "jdbc:h2:mem:cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"));
+        users = benchmarkUsers.users();
+        statistics = benchmarkUsers.statistics();
+        user = benchmarkUsers.inTransaction(() -> users.create(User.builder()
+                                                                   .email("cached@tutorial.io")
+                                                                   .username("cached")
+                                                                   .firstName("Cached")
+                                                                   .lastName("User")
+                                                                   .admin(false)
+                                                                   .hashedPassword("5e884898da28047151d0e56f8dc6292773603d0d6aabbdd62a11ef721d1542d8")
+                                                                   .build()));
+        // cached query results are only valid if they are newer than the last write, timestamps are in milliseconds
+        long created = System.currentTimeMillis();
+        while (System.currentTimeMillis() == created) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        benchmarkUsers.close();
+    }
+
+    @Test
+    void repeatedGetIssuesNoSql() {
+        // the first reads fill the caches
+        read(() -> users.get(user.getId()));
+        read(() -> users.get(user.getId()));
+        long statements = statistics.getPrepareStatementCount();
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+
+        for (int i = 0; i < READS; ++i) {
+            assertEquals("cached", read(() -> users.get(user.getId())).getUsername());
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(entityHits + READS, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void repeatedUsernameQueryIssuesNoSql() {
+        // the query itself, without the username cache of Users in front of it
+        read(() -> users.loadByUsername("cached"));
+        read(() -> users.loadByUsername("cached"));
+        long statements = statistics.getPrepareStatementCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+
+        for (int i = 0; i < READS; ++i) {
+            assertEquals(user.getId(), read(() -> users.loadByUsername("cached")).map(User::getId).orElse(null));
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        // the query cache only holds the id, the entity comes from the second-level cache
+        assertEquals(queryHits + READS, statistics.getQueryCacheHitCount());
+        assertEquals(entityHits + READS, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void repeatedFindByUsernameIssuesNoSql() {
+        // entries of the username cache of Users expire at once, so every read goes through the Hibernate caches
+        users.cacheTtl = Duration.ZERO;
+        users.setup();
+
+        read(() -> users.findByUsername("cached"));
+        read(() -> users.findByUsername("cached"));
+        long statements = statistics.getPrepareStatementCount();
+        long queryHits = statistics.getQueryCacheHitCount();
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+
+        for (int i = 0; i < READS; ++i) {
+            Optional<User> found = read(() -> users.findByUsername("cached"));
+            assertEquals(user.getId(), found.map(User::getId).orElse(null));
+        }
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(queryHits + READS, statistics.getQueryCacheHitCount());
+        assertEquals(entityHits + READS, statistics.getSecondLevelCacheHitCount());
+        assertEquals(READS + 2, users.cacheStatistics().getMisses());
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        T value = benchmarkUsers.inTransaction(reader);
+        benchmarkUsers.clear();
+        return value;
+    }
+}